@@ -0,0 +1,89 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+
+import com.mobsandgeeks.adapters.BenchmarkModels.Model5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading an annotated getter through reflection, which is how models without a
+ * generated {@link InstantBinder} are bound, with reading it through a binder like the one the
+ * annotation processor generates.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessorBenchmark {
+
+    private Context mContext;
+    private Model5 mInstance;
+    private Accessor mReflectiveAccessor;
+    private Accessor mBinderAccessor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws NoSuchMethodException {
+        mContext = new Context();
+        mInstance = new Model5(1);
+
+        Method method = Model5.class.getMethod("getDate2");
+        InstantBinder<?> binder = new InstantBinder<Model5>() {
+
+            @Override
+            public String[] getMethodNames() {
+                return new String[] { "getDate2" };
+            }
+
+            @Override
+            public Object getValue(final int index, final Model5 instance,
+                    final Context context) {
+                switch (index) {
+                    case 0:
+                        return instance.getDate2();
+                    default:
+                        throw new IllegalArgumentException("Invalid index " + index);
+                }
+            }
+        };
+
+        mReflectiveAccessor = Accessor.create(method, null, -1);
+        mBinderAccessor = Accessor.create(method, (InstantBinder<Object>) binder, 0);
+    }
+
+    @Benchmark
+    public Object invokeReflectedMethod() {
+        return mReflectiveAccessor.get(mInstance, mContext);
+    }
+
+    @Benchmark
+    public Object invokeGeneratedBinder() {
+        return mBinderAccessor.get(mInstance, mContext);
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.Date;
+
+/**
+ * Models with 1, 5 and 20 {@link InstantText} annotated getters and their layouts. The getters
+ * cycle through plain text, a date pattern, a {@code %.2f} format string, HTML and a {@code %d}
+ * format string, so that every formatting path is exercised by the larger models. All of them
+ * set {@link InstantText#skipUnchanged()}. {@link CursorModel} binds the same values from a
+ * {@link Cursor} using the layout of the 5 getter model.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class BenchmarkModels {
+
+    // Constants
+    private static final int LAYOUT_BASE = 0x7f030000;
+
+    private BenchmarkModels() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    /**
+     * Returns the model class with the given number of annotated getters.
+     *
+     * @param getterCount 1, 5 or 20.
+     */
+    public static Class<? extends Row> getModelType(final int getterCount) {
+        switch (getterCount) {
+            case 1:
+                return Model1.class;
+            case 5:
+                return Model5.class;
+            case 20:
+                return Model20.class;
+            default:
+                throw new IllegalArgumentException("No model with " + getterCount + " getters.");
+        }
+    }
+
+    /**
+     * Creates an instance of the model with the given number of annotated getters.
+     *
+     * @param getterCount 1, 5 or 20.
+     * @param seed Varies the values returned by the getters.
+     */
+    public static Row newModel(final int getterCount, final int seed) {
+        switch (getterCount) {
+            case 1:
+                return new Model1(seed);
+            case 5:
+                return new Model5(seed);
+            case 20:
+                return new Model20(seed);
+            default:
+                throw new IllegalArgumentException("No model with " + getterCount + " getters.");
+        }
+    }
+
+    /**
+     * Returns the layout resource id for the model with the given number of getters, the
+     * layout is registered with the {@link LayoutInflater} on first use.
+     *
+     * @param getterCount 1, 5 or 20.
+     */
+    public static int getLayoutResourceId(final int getterCount) {
+        final int layoutResourceId = LAYOUT_BASE + getterCount;
+        LayoutInflater.registerLayout(layoutResourceId, new LayoutInflater.Layout() {
+
+            @Override
+            public View create(final Context context) {
+                ViewGroup row = new ViewGroup(context);
+                for (int i = 1; i <= getterCount; i++) {
+                    TextView textView = new TextView(context);
+                    textView.setId(i);
+                    row.addView(textView);
+                }
+                return row;
+            }
+        });
+        return layoutResourceId;
+    }
+
+    /**
+     * Creates an in-memory {@link Cursor} with rows for {@link CursorModel}.
+     *
+     * @param rowCount Number of rows.
+     */
+    public static Cursor newCursor(final int rowCount) {
+        MatrixCursor cursor = new MatrixCursor(new String[] {
+            "_id", "title", "published", "price", "description", "pages"
+        }, rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Row row = new Model5(i);
+            cursor.addRow(new Object[] {
+                (long) i, row.mText, row.mDate.getTime(), row.mPrice, row.mHtml, row.mCount
+            });
+        }
+        return cursor;
+    }
+
+    /**
+     * Values shared by the models.
+     */
+    public abstract static class Row {
+        final String mText;
+        final Date mDate;
+        final double mPrice;
+        final String mHtml;
+        final int mCount;
+
+        Row(final int seed) {
+            mText = "Title " + seed;
+            mDate = new Date(1357000000000L + seed * 86400000L);
+            mPrice = 10 + seed * 0.37;
+            mHtml = "<b>Bold</b> and <i>italic</i> " + seed;
+            mCount = 100 + seed;
+        }
+    }
+
+    /**
+     * A model with 1 annotated getter.
+     */
+    public static class Model1 extends Row {
+
+        public Model1(final int seed) {
+            super(seed);
+        }
+
+        @InstantText(viewId = 1, skipUnchanged = true)
+        public String getText1() {
+            return mText;
+        }
+    }
+
+    /**
+     * A model with 5 annotated getters.
+     */
+    public static class Model5 extends Row {
+
+        public Model5(final int seed) {
+            super(seed);
+        }
+
+        @InstantText(viewId = 1, skipUnchanged = true)
+        public String getText1() {
+            return mText;
+        }
+
+        @InstantText(viewId = 2, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public Date getDate2() {
+            return mDate;
+        }
+
+        @InstantText(viewId = 3, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice3() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 4, isHtml = true, skipUnchanged = true)
+        public String getHtml4() {
+            return mHtml;
+        }
+
+        @InstantText(viewId = 5, formatString = "%d pages", skipUnchanged = true)
+        public int getCount5() {
+            return mCount;
+        }
+    }
+
+    /**
+     * A model with 20 annotated getters.
+     */
+    public static class Model20 extends Row {
+
+        public Model20(final int seed) {
+            super(seed);
+        }
+
+        @InstantText(viewId = 1, skipUnchanged = true)
+        public String getText1() {
+            return mText;
+        }
+
+        @InstantText(viewId = 2, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public Date getDate2() {
+            return mDate;
+        }
+
+        @InstantText(viewId = 3, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice3() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 4, isHtml = true, skipUnchanged = true)
+        public String getHtml4() {
+            return mHtml;
+        }
+
+        @InstantText(viewId = 5, formatString = "%d pages", skipUnchanged = true)
+        public int getCount5() {
+            return mCount;
+        }
+
+        @InstantText(viewId = 6, skipUnchanged = true)
+        public String getText6() {
+            return mText;
+        }
+
+        @InstantText(viewId = 7, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public Date getDate7() {
+            return mDate;
+        }
+
+        @InstantText(viewId = 8, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice8() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 9, isHtml = true, skipUnchanged = true)
+        public String getHtml9() {
+            return mHtml;
+        }
+
+        @InstantText(viewId = 10, formatString = "%d pages", skipUnchanged = true)
+        public int getCount10() {
+            return mCount;
+        }
+
+        @InstantText(viewId = 11, skipUnchanged = true)
+        public String getText11() {
+            return mText;
+        }
+
+        @InstantText(viewId = 12, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public Date getDate12() {
+            return mDate;
+        }
+
+        @InstantText(viewId = 13, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice13() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 14, isHtml = true, skipUnchanged = true)
+        public String getHtml14() {
+            return mHtml;
+        }
+
+        @InstantText(viewId = 15, formatString = "%d pages", skipUnchanged = true)
+        public int getCount15() {
+            return mCount;
+        }
+
+        @InstantText(viewId = 16, skipUnchanged = true)
+        public String getText16() {
+            return mText;
+        }
+
+        @InstantText(viewId = 17, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public Date getDate17() {
+            return mDate;
+        }
+
+        @InstantText(viewId = 18, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice18() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 19, isHtml = true, skipUnchanged = true)
+        public String getHtml19() {
+            return mHtml;
+        }
+
+        @InstantText(viewId = 20, formatString = "%d pages", skipUnchanged = true)
+        public int getCount20() {
+            return mCount;
+        }
+    }
+
+    /**
+     * A model read from the {@link Cursor} returned by {@link #newCursor(int)}, with the same
+     * annotated getters as {@link Model5}.
+     */
+    public static class CursorModel {
+        @InstantColumn(name = "title") String mTitle;
+        @InstantColumn(name = "published") long mPublished;
+        @InstantColumn(name = "price") double mPrice;
+        @InstantColumn(name = "description") String mDescription;
+        @InstantColumn(name = "pages") int mPages;
+
+        @InstantText(viewId = 1, skipUnchanged = true)
+        public String getTitle() {
+            return mTitle;
+        }
+
+        @InstantText(viewId = 2, datePattern = "dd MMM yyyy, HH:mm", skipUnchanged = true)
+        public long getPublished() {
+            return mPublished;
+        }
+
+        @InstantText(viewId = 3, formatString = "$ %.2f", skipUnchanged = true)
+        public double getPrice() {
+            return mPrice;
+        }
+
+        @InstantText(viewId = 4, isHtml = true, skipUnchanged = true)
+        public String getDescription() {
+            return mDescription;
+        }
+
+        @InstantText(viewId = 5, formatString = "%d pages", skipUnchanged = true)
+        public int getPages() {
+            return mPages;
+        }
+    }
+
+}
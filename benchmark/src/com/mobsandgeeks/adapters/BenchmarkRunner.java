@@ -0,0 +1,46 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so that every result is reported along
+ * with its {@code gc.alloc.rate.norm}, the bytes allocated per operation. Regular JMH command
+ * line options are accepted, e.g. a regular expression to select the benchmarks or {@code -l} to
+ * list them. The GC profiler is left out when other profilers are chosen with {@code -prof}.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    public static void main(final String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<String>(Arrays.asList(args));
+        if (!jmhArgs.contains("-prof")) {
+            jmhArgs.add("-prof");
+            jmhArgs.add("gc");
+        }
+        Main.main(jmhArgs.toArray(new String[jmhArgs.size()]));
+    }
+
+}
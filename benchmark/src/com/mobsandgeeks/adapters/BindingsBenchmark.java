@@ -0,0 +1,64 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of scanning a model for annotated methods, which every adapter paid on
+ * construction before the {@link Bindings} were shared through the {@link BindingRegistry}. It
+ * is still paid once per model and layout, usually while the first screen is being set up.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BindingsBenchmark {
+
+    @Param({ "1", "5", "20" })
+    public int getterCount;
+
+    private Context mContext;
+    private Class<?> mModelType;
+    private int mLayoutResourceId;
+
+    @Setup
+    public void setUp() {
+        mContext = new Context();
+        mModelType = BenchmarkModels.getModelType(getterCount);
+        mLayoutResourceId = BenchmarkModels.getLayoutResourceId(getterCount);
+    }
+
+    @Benchmark
+    public Object findAnnotatedMethods() {
+        return new Bindings(mContext, mModelType, mLayoutResourceId, Locale.US,
+                TimeZone.getDefault());
+    }
+
+}
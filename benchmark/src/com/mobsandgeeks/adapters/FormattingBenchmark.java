@@ -0,0 +1,163 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.text.Html;
+import android.util.SparseArray;
+
+import com.mobsandgeeks.adapters.BindingPlan.Step;
+import com.mobsandgeeks.adapters.Bindings.Meta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text transformations applied while binding, each next to the straightforward
+ * implementation it replaced: date patterns, format strings, finding the formatters of a row's
+ * slots and the {@code isHtml} path. Note
+ * that {@link Html#fromHtml(String)} is a stand-in on the JVM, so only the relative cost of the
+ * {@link HtmlCache} lookup is meaningful, the parse itself is much slower on a device.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormattingBenchmark {
+
+    // Constants
+    private static final String DATE_PATTERN = "dd MMM yyyy, HH:mm";
+    private static final String FORMAT_STRING = "$ %.2f";
+    private static final String HTML = "<b>Bold</b> and <i>italic</i> 1";
+
+    private Date mDate;
+    private Double mPrice;
+    private SimpleDateFormat mSimpleDateFormat;
+    private CompiledDatePattern mCompiledDatePattern;
+    private CompiledFormat mCompiledFormat;
+    private HtmlCache mHtmlCache;
+
+    // Formatter resolution for a row of BenchmarkModels.Model20
+    private Bindings mBindings;
+    private Step[] mSteps;
+    private SparseArray<CompiledDatePattern> mDatePatternCache;
+    private SparseArray<CompiledFormat> mFormatCache;
+
+    @Setup
+    public void setUp() {
+        mDate = new Date(1357000000000L);
+        mPrice = 10.37;
+        mSimpleDateFormat = new SimpleDateFormat(DATE_PATTERN, Locale.US);
+        mCompiledDatePattern = CompiledDatePattern.compile(DATE_PATTERN, Locale.US,
+                TimeZone.getDefault());
+        mCompiledFormat = CompiledFormat.compile(FORMAT_STRING, Locale.US);
+        mHtmlCache = new HtmlCache(16);
+
+        mBindings = new Bindings(new Context(), BenchmarkModels.getModelType(20),
+                BenchmarkModels.getLayoutResourceId(20), Locale.US, TimeZone.getDefault());
+        mSteps = mBindings.getBindingPlan().getSteps();
+        mDatePatternCache = new SparseArray<CompiledDatePattern>();
+        mFormatCache = new SparseArray<CompiledFormat>();
+        resolveFormattersLookup();
+    }
+
+    @Benchmark
+    public Object applyDatePatternSimpleDateFormat() {
+        return mSimpleDateFormat.format(mDate);
+    }
+
+    @Benchmark
+    public Object applyDatePattern() {
+        return mCompiledDatePattern.format(mDate);
+    }
+
+    @Benchmark
+    public Object applyFormatStringStringFormat() {
+        return String.format(Locale.US, FORMAT_STRING, mPrice);
+    }
+
+    @Benchmark
+    public Object applyFormatString() {
+        return mCompiledFormat.format(mPrice);
+    }
+
+    /**
+     * Finds the formatters of every slot the way binding did before they were attached to the
+     * {@link BindingPlan}: two searches per slot, and the annotation is read again for slots
+     * without a date pattern, because a missing pattern was never cached.
+     */
+    @Benchmark
+    public int resolveFormattersLookup() {
+        int nFormatters = 0;
+        for (Meta meta : mBindings.getSlotMetas()) {
+            InstantText instantText = (InstantText) meta.annotation;
+            int viewId = instantText.viewId();
+
+            CompiledDatePattern datePattern;
+            if (mDatePatternCache.indexOfKey(viewId) > -1) {
+                datePattern = mDatePatternCache.get(viewId);
+            } else {
+                datePattern = mBindings.compileDatePattern(instantText);
+                if (datePattern != null) {
+                    mDatePatternCache.put(viewId, datePattern);
+                }
+            }
+
+            CompiledFormat format;
+            int index = mFormatCache.indexOfKey(viewId);
+            if (index > -1) {
+                format = mFormatCache.valueAt(index);
+            } else {
+                format = mBindings.compileFormat(instantText);
+                mFormatCache.put(viewId, format);
+            }
+
+            nFormatters += (datePattern != null ? 1 : 0) + (format != null ? 1 : 0);
+        }
+        return nFormatters;
+    }
+
+    @Benchmark
+    public int resolveFormatters() {
+        int nFormatters = 0;
+        for (Step step : mSteps) {
+            nFormatters += (step.datePattern != null ? 1 : 0) + (step.format != null ? 1 : 0);
+        }
+        return nFormatters;
+    }
+
+    @Benchmark
+    public Object fromHtml() {
+        return Html.fromHtml(HTML);
+    }
+
+    @Benchmark
+    public Object fromHtmlCached() {
+        return mHtmlCache.fromHtml(HTML);
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ListView;
+
+import com.mobsandgeeks.adapters.BenchmarkModels.Row;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-row work of {@link InstantAdapterCore}: creating a row and its holder, and
+ * binding a model to it. {@link #bindToView()} alternates between two instances so that every
+ * text changes on every bind, {@link #bindToViewUnchanged()} rebinds the same instance and
+ * shows what {@link InstantText#skipUnchanged()} saves.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstantAdapterCoreBenchmark {
+
+    @Param({ "1", "5", "20" })
+    public int getterCount;
+
+    private Context mContext;
+    private ListView mParent;
+    private InstantAdapterCore<Row> mInstantAdapterCore;
+    private View mView;
+    private Row[] mInstances;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mContext = new Context();
+        mParent = new ListView(mContext);
+        mInstantAdapterCore = new InstantAdapterCore<Row>(mContext, null,
+                BenchmarkModels.getLayoutResourceId(getterCount),
+                BenchmarkModels.getModelType(getterCount));
+        mView = mInstantAdapterCore.createNewView(mContext, mParent);
+        mInstances = new Row[] {
+            BenchmarkModels.newModel(getterCount, 1),
+            BenchmarkModels.newModel(getterCount, 2)
+        };
+    }
+
+    @Benchmark
+    public Object createNewView() {
+        return mInstantAdapterCore.createNewView(mContext, mParent);
+    }
+
+    @Benchmark
+    public Object bindToView() {
+        int position = mPosition++ & 1;
+        mInstantAdapterCore.bindToView(mParent, mView, mInstances[position], position);
+        return mView;
+    }
+
+    @Benchmark
+    public Object bindToViewUnchanged() {
+        mInstantAdapterCore.bindToView(mParent, mView, mInstances[0], 0);
+        return mView;
+    }
+
+}
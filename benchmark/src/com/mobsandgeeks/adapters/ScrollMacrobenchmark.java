@@ -0,0 +1,252 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.view.LayoutInflater;
+import android.widget.ListAdapter;
+
+import com.mobsandgeeks.adapters.BenchmarkModels.CursorModel;
+import com.mobsandgeeks.adapters.BenchmarkModels.Row;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Drives {@link InstantAdapter} and {@link InstantCursorAdapter} through the scripted
+ * {@link ScrollTrace}s using a {@link ScrollSimulator}, over 1k and 100k items. For each trace
+ * it reports the latency percentiles of {@code getView()}, the bytes allocated by the scrolling
+ * thread and the number of rows inflated, and writes the results as JSON so that runs can be
+ * compared over time.
+ * <p>
+ * Each trace is run once to warm up the JIT, then again on a new adapter and list for the
+ * measurements, so the inflations include filling the first screen.
+ * </p>
+ * <p>
+ * This is a synthetic smoke test. It runs on the JVM against the stand-ins in
+ * {@code benchmark/stubs} and an in-memory {@code MatrixCursor}, not on Robolectric or a device
+ * with SQLite, so its latencies and allocations leave out everything the real framework does.
+ * Use it to catch regressions in the library's own code between runs, not to predict scrolling
+ * performance on Android. The output is labelled accordingly.
+ * </p>
+ *
+ * <pre>
+ * java -cp &lt;classpath&gt; com.mobsandgeeks.adapters.ScrollMacrobenchmark [results.json]
+ * </pre>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class ScrollMacrobenchmark {
+
+    // Constants
+    private static final String DEFAULT_OUTPUT = "scroll-benchmark.json";
+    private static final String ENVIRONMENT = "synthetic JVM smoke test, android.* stubs";
+    private static final int[] ITEM_COUNTS = { 1000, 100000 };
+    private static final int VISIBLE_COUNT = 12;
+    private static final int GETTER_COUNT = 5;
+
+    private static final String INSTANT_ADAPTER = "InstantAdapter";
+    private static final String INSTANT_CURSOR_ADAPTER = "InstantCursorAdapter";
+
+    private ScrollMacrobenchmark() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    public static void main(final String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : DEFAULT_OUTPUT;
+        Context context = new Context();
+        List<Result> results = new ArrayList<Result>();
+
+        for (int itemCount : ITEM_COUNTS) {
+            List<Row> rows = new ArrayList<Row>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                rows.add(BenchmarkModels.newModel(GETTER_COUNT, i));
+            }
+            Cursor cursor = BenchmarkModels.newCursor(itemCount);
+
+            for (ScrollTrace trace : ScrollTrace.values()) {
+                run(context, INSTANT_ADAPTER, rows, cursor, trace);
+                results.add(run(context, INSTANT_ADAPTER, rows, cursor, trace));
+
+                run(context, INSTANT_CURSOR_ADAPTER, rows, cursor, trace);
+                results.add(run(context, INSTANT_CURSOR_ADAPTER, rows, cursor, trace));
+            }
+        }
+
+        System.out.println("Scroll traces, " + ENVIRONMENT + ", not representative of a device");
+        for (Result result : results) {
+            System.out.println(result);
+        }
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8");
+        try {
+            writer.write(toJson(results));
+        } finally {
+            writer.close();
+        }
+        System.out.println("Results written to " + output);
+    }
+
+    private static Result run(final Context context, final String adapterName,
+            final List<Row> rows, final Cursor cursor, final ScrollTrace trace) {
+        int layoutResourceId = BenchmarkModels.getLayoutResourceId(GETTER_COUNT);
+        ListAdapter adapter;
+        if (INSTANT_ADAPTER.equals(adapterName)) {
+            adapter = new InstantAdapter<Row>(context, layoutResourceId,
+                    BenchmarkModels.getModelType(GETTER_COUNT), rows);
+        } else {
+            adapter = new InstantColumnCursorAdapter<CursorModel>(context, layoutResourceId,
+                    CursorModel.class, cursor);
+        }
+
+        ScrollSimulator scrollSimulator = new ScrollSimulator(context, VISIBLE_COUNT);
+        scrollSimulator.setAdapter(adapter);
+        int[] frames = trace.getFrames(adapter.getCount(), VISIBLE_COUNT);
+
+        long inflationsBefore = LayoutInflater.getInflationCount();
+        long allocatedBefore = getAllocatedBytes();
+        for (int firstPosition : frames) {
+            scrollSimulator.scrollTo(firstPosition);
+        }
+        long allocatedAfter = getAllocatedBytes();
+        long inflationsAfter = LayoutInflater.getInflationCount();
+
+        return new Result(adapterName, adapter.getCount(), trace.getName(), frames.length,
+                scrollSimulator.getBindNanos(),
+                allocatedBefore != -1 ? allocatedAfter - allocatedBefore : -1,
+                inflationsAfter - inflationsBefore);
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far, or -1 if the JVM does not
+     * track them.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotSpotBean =
+                    (com.sun.management.ThreadMXBean) threadMXBean;
+            if (hotSpotBean.isThreadAllocatedMemorySupported()
+                    && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+                return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static String toJson(final List<Result> results) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"environment\": \"").append(ENVIRONMENT).append("\",\n");
+        json.append("  \"timestamp\": ").append(new Date().getTime()).append(",\n");
+        json.append("  \"jvm\": \"").append(System.getProperty("java.vm.name")).append(' ')
+                .append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"visibleRows\": ").append(VISIBLE_COUNT).append(",\n");
+        json.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            results.get(i).appendJson(json);
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Measurements of a single trace.
+     */
+    private static class Result {
+        final String adapter;
+        final int itemCount;
+        final String trace;
+        final int frameCount;
+        final int bindCount;
+        final long p50;
+        final long p90;
+        final long p99;
+        final long max;
+        final long mean;
+        final long allocatedBytes;
+        final long inflations;
+
+        Result(final String adapter, final int itemCount, final String trace,
+                final int frameCount, final long[] bindNanos, final long allocatedBytes,
+                final long inflations) {
+            this.adapter = adapter;
+            this.itemCount = itemCount;
+            this.trace = trace;
+            this.frameCount = frameCount;
+            this.bindCount = bindNanos.length;
+            this.allocatedBytes = allocatedBytes;
+            this.inflations = inflations;
+
+            Arrays.sort(bindNanos);
+            this.p50 = percentile(bindNanos, 50);
+            this.p90 = percentile(bindNanos, 90);
+            this.p99 = percentile(bindNanos, 99);
+            this.max = bindNanos.length > 0 ? bindNanos[bindNanos.length - 1] : 0;
+
+            long total = 0;
+            for (long nanos : bindNanos) {
+                total += nanos;
+            }
+            this.mean = bindNanos.length > 0 ? total / bindNanos.length : 0;
+        }
+
+        private static long percentile(final long[] sorted, final int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)];
+        }
+
+        void appendJson(final StringBuilder json) {
+            json.append("    {");
+            json.append("\"adapter\": \"").append(adapter).append("\", ");
+            json.append("\"items\": ").append(itemCount).append(", ");
+            json.append("\"trace\": \"").append(trace).append("\", ");
+            json.append("\"frames\": ").append(frameCount).append(", ");
+            json.append("\"binds\": ").append(bindCount).append(", ");
+            json.append("\"bindNanos\": {");
+            json.append("\"p50\": ").append(p50).append(", ");
+            json.append("\"p90\": ").append(p90).append(", ");
+            json.append("\"p99\": ").append(p99).append(", ");
+            json.append("\"max\": ").append(max).append(", ");
+            json.append("\"mean\": ").append(mean).append("}, ");
+            json.append("\"allocatedBytes\": ").append(allocatedBytes).append(", ");
+            json.append("\"inflations\": ").append(inflations);
+            json.append("}");
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-21s %7d %-11s binds=%6d p50=%7dns p90=%7dns "
+                    + "p99=%8dns max=%9dns alloc=%11dB inflations=%d", adapter, itemCount,
+                    trace, bindCount, p50, p90, p99, max, allocatedBytes, inflations);
+        }
+    }
+
+}
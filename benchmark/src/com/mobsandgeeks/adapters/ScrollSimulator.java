@@ -0,0 +1,158 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ListAdapter;
+import android.widget.ListView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ListView} that lays out a fixed number of rows and recycles them the way the
+ * framework does: rows that stay on screen are left alone, rows that scroll off are scrapped
+ * and handed back to {@link ListAdapter#getView(int, View, android.view.ViewGroup)} as the
+ * {@code convertView} of a row of the same view type. Every {@code getView()} call is timed.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class ScrollSimulator extends ListView {
+
+    // Attributes
+    private final int mVisibleCount;
+    private List<List<View>> mScrapViews;
+    private int[] mChildViewTypes;
+    private boolean mLaidOut;
+
+    // Measurements
+    private long[] mBindNanos = new long[1024];
+    private int mBindCount;
+
+    /**
+     * Constructs a new {@link ScrollSimulator}.
+     *
+     * @param context The {@link Context} to use.
+     * @param visibleCount Number of rows that fit on the screen.
+     */
+    public ScrollSimulator(final Context context, final int visibleCount) {
+        super(context);
+        mVisibleCount = visibleCount;
+    }
+
+    @Override
+    public void setAdapter(final ListAdapter adapter) {
+        super.setAdapter(adapter);
+        removeAllViews();
+        mScrapViews = new ArrayList<List<View>>();
+        for (int i = 0; i < adapter.getViewTypeCount(); i++) {
+            mScrapViews.add(new ArrayList<View>());
+        }
+        mLaidOut = false;
+    }
+
+    /**
+     * Scrolls the list so that the given position is the first visible row.
+     *
+     * @param firstPosition The first visible position, clamped to the list.
+     */
+    public void scrollTo(final int firstPosition) {
+        ListAdapter adapter = getAdapter();
+        int itemCount = adapter.getCount();
+        int nVisible = Math.min(mVisibleCount, itemCount);
+        int newFirst = Math.max(0, Math.min(firstPosition, itemCount - nVisible));
+
+        int oldFirst = getFirstVisiblePosition();
+        int nOld = getChildCount();
+        if (mLaidOut && newFirst == oldFirst && nOld == nVisible) {
+            return;
+        }
+
+        // Scrap the rows that scroll off before filling in the new ones
+        View[] oldChildren = new View[nOld];
+        for (int i = 0; i < nOld; i++) {
+            oldChildren[i] = getChildAt(i);
+            int position = oldFirst + i;
+            if (position < newFirst || position >= newFirst + nVisible) {
+                mScrapViews.get(mChildViewTypes[i]).add(oldChildren[i]);
+            }
+        }
+
+        View[] newChildren = new View[nVisible];
+        int[] newViewTypes = new int[nVisible];
+        for (int i = 0; i < nVisible; i++) {
+            int position = newFirst + i;
+            int oldIndex = position - oldFirst;
+            if (oldIndex >= 0 && oldIndex < nOld) {
+                newChildren[i] = oldChildren[oldIndex];
+                newViewTypes[i] = mChildViewTypes[oldIndex];
+                continue;
+            }
+
+            int viewType = adapter.getItemViewType(position);
+            List<View> scrapViews = mScrapViews.get(viewType);
+            View convertView = scrapViews.isEmpty() ?
+                    null : scrapViews.remove(scrapViews.size() - 1);
+
+            long start = System.nanoTime();
+            newChildren[i] = adapter.getView(position, convertView, this);
+            recordBind(System.nanoTime() - start);
+            newViewTypes[i] = viewType;
+        }
+
+        removeAllViews();
+        for (View child : newChildren) {
+            addView(child);
+        }
+        mChildViewTypes = newViewTypes;
+        setFirstVisiblePosition(newFirst);
+        mLaidOut = true;
+    }
+
+    /**
+     * Returns the number of {@code getView()} calls since the last reset.
+     */
+    public int getBindCount() {
+        return mBindCount;
+    }
+
+    /**
+     * Returns the duration of every {@code getView()} call since the last reset, in
+     * nanoseconds. The returned array is a copy.
+     */
+    public long[] getBindNanos() {
+        long[] bindNanos = new long[mBindCount];
+        System.arraycopy(mBindNanos, 0, bindNanos, 0, mBindCount);
+        return bindNanos;
+    }
+
+    /**
+     * Forgets the recorded {@code getView()} calls.
+     */
+    public void resetMeasurements() {
+        mBindCount = 0;
+    }
+
+    private void recordBind(final long nanos) {
+        if (mBindCount == mBindNanos.length) {
+            long[] bindNanos = new long[mBindCount * 2];
+            System.arraycopy(mBindNanos, 0, bindNanos, 0, mBindCount);
+            mBindNanos = bindNanos;
+        }
+        mBindNanos[mBindCount++] = nanos;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.util.Random;
+
+/**
+ * Scripted scroll gestures, expressed as the first visible position of each frame. Positions
+ * are clamped to the list by the {@link ScrollSimulator}.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public enum ScrollTrace {
+
+    /**
+     * A finger dragging down the list a row at a time, then back up.
+     */
+    SLOW_DRAG("slow-drag") {
+        @Override
+        int[] getFrames(final int itemCount, final int visibleCount) {
+            int nRows = Math.min(300, Math.max(itemCount - visibleCount, 0));
+            int[] frames = new int[nRows * 2 + 1];
+            for (int i = 0; i <= nRows; i++) {
+                frames[i] = i;
+                frames[nRows * 2 - i] = i;
+            }
+            return frames;
+        }
+    },
+
+    /**
+     * Repeated flings, starting fast and slowing down with friction. Flings turn back at the
+     * ends of the list.
+     */
+    FAST_FLING("fast-fling") {
+        @Override
+        int[] getFrames(final int itemCount, final int visibleCount) {
+            int maxPosition = Math.max(itemCount - visibleCount, 0);
+            int[] frames = new int[FLING_COUNT * FLING_FRAMES];
+            double position = 0;
+            int direction = 1;
+            for (int i = 0; i < FLING_COUNT; i++) {
+                double velocity = FLING_VELOCITY;
+                for (int j = 0; j < FLING_FRAMES; j++) {
+                    position = Math.max(0, Math.min(position + direction * velocity,
+                            maxPosition));
+                    velocity *= FLING_FRICTION;
+                    frames[i * FLING_FRAMES + j] = (int) position;
+                }
+                if (position == maxPosition || position == 0) {
+                    direction = -direction;
+                }
+            }
+            return frames;
+        }
+    },
+
+    /**
+     * Jumps to random positions, as with a fast scroll thumb or {@code setSelection()}, so
+     * every visible row is rebound on each frame.
+     */
+    JUMP("jump") {
+        @Override
+        int[] getFrames(final int itemCount, final int visibleCount) {
+            Random random = new Random(JUMP_SEED);
+            int[] frames = new int[JUMP_COUNT];
+            for (int i = 0; i < JUMP_COUNT; i++) {
+                frames[i] = random.nextInt(Math.max(itemCount - visibleCount, 1));
+            }
+            return frames;
+        }
+    };
+
+    // Constants
+    private static final int FLING_COUNT = 10;
+    private static final int FLING_FRAMES = 60;
+    private static final double FLING_VELOCITY = 40;
+    private static final double FLING_FRICTION = 0.92;
+    private static final int JUMP_COUNT = 100;
+    private static final long JUMP_SEED = 42;
+
+    private final String mName;
+
+    private ScrollTrace(final String name) {
+        mName = name;
+    }
+
+    /**
+     * Returns the name used in reports.
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Returns the first visible position of every frame.
+     *
+     * @param itemCount Number of items in the adapter.
+     * @param visibleCount Number of rows that fit on the screen.
+     */
+    abstract int[] getFrames(int itemCount, int visibleCount);
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.content;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for Android's {@code Context}, string resources are registered using
+ * {@link #putString(int, String)}.
+ */
+public class Context {
+
+    private final Map<Integer, String> mStrings = new HashMap<Integer, String>();
+
+    public void putString(final int resId, final String value) {
+        mStrings.put(resId, value);
+    }
+
+    public String getString(final int resId) {
+        String value = mStrings.get(resId);
+        if (value == null) {
+            throw new IllegalArgumentException("No string resource " + resId);
+        }
+        return value;
+    }
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+}
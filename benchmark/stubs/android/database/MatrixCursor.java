@@ -0,0 +1,160 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for Android's {@code MatrixCursor}, an in-memory {@link Cursor} whose rows are
+ * added using {@link #addRow(Object[])}.
+ */
+public class MatrixCursor implements Cursor {
+
+    private final String[] mColumnNames;
+    private final List<Object[]> mRows;
+    private final List<DataSetObserver> mObservers = new ArrayList<DataSetObserver>();
+    private int mPosition = -1;
+    private boolean mClosed;
+
+    public MatrixCursor(final String[] columnNames, final int initialCapacity) {
+        mColumnNames = columnNames;
+        mRows = new ArrayList<Object[]>(initialCapacity);
+    }
+
+    public MatrixCursor(final String[] columnNames) {
+        this(columnNames, 16);
+    }
+
+    public void addRow(final Object[] columnValues) {
+        if (columnValues.length != mColumnNames.length) {
+            throw new IllegalArgumentException("columnNames.length = " + mColumnNames.length
+                    + ", columnValues.length = " + columnValues.length);
+        }
+        mRows.add(columnValues.clone());
+    }
+
+    public int getCount() {
+        return mRows.size();
+    }
+
+    public int getPosition() {
+        return mPosition;
+    }
+
+    public boolean moveToPosition(final int position) {
+        if (position < 0) {
+            mPosition = -1;
+            return false;
+        } else if (position >= mRows.size()) {
+            mPosition = mRows.size();
+            return false;
+        }
+        mPosition = position;
+        return true;
+    }
+
+    public int getColumnIndex(final String columnName) {
+        for (int i = 0; i < mColumnNames.length; i++) {
+            if (mColumnNames[i].equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getColumnIndexOrThrow(final String columnName) {
+        int columnIndex = getColumnIndex(columnName);
+        if (columnIndex == -1) {
+            throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+        }
+        return columnIndex;
+    }
+
+    public String[] getColumnNames() {
+        return mColumnNames;
+    }
+
+    public int getColumnCount() {
+        return mColumnNames.length;
+    }
+
+    public String getString(final int columnIndex) {
+        Object value = get(columnIndex);
+        return value != null ? value.toString() : null;
+    }
+
+    public byte[] getBlob(final int columnIndex) {
+        return (byte[]) get(columnIndex);
+    }
+
+    public short getShort(final int columnIndex) {
+        return (short) getLong(columnIndex);
+    }
+
+    public int getInt(final int columnIndex) {
+        return (int) getLong(columnIndex);
+    }
+
+    public long getLong(final int columnIndex) {
+        Object value = get(columnIndex);
+        if (value == null) {
+            return 0;
+        }
+        return value instanceof Number ?
+                ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    public float getFloat(final int columnIndex) {
+        return (float) getDouble(columnIndex);
+    }
+
+    public double getDouble(final int columnIndex) {
+        Object value = get(columnIndex);
+        if (value == null) {
+            return 0;
+        }
+        return value instanceof Number ?
+                ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    public boolean isNull(final int columnIndex) {
+        return get(columnIndex) == null;
+    }
+
+    public boolean isClosed() {
+        return mClosed;
+    }
+
+    public void close() {
+        mClosed = true;
+    }
+
+    public void registerDataSetObserver(final DataSetObserver observer) {
+        mObservers.add(observer);
+    }
+
+    public void unregisterDataSetObserver(final DataSetObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    private Object get(final int columnIndex) {
+        if (mPosition < 0 || mPosition >= mRows.size()) {
+            throw new IllegalStateException("Cursor is not positioned on a row");
+        }
+        return mRows.get(mPosition)[columnIndex];
+    }
+
+}
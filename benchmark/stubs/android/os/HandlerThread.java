@@ -0,0 +1,37 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+/**
+ * JVM stand-in for Android's {@code HandlerThread}, the {@link Looper} owns the actual thread.
+ */
+public class HandlerThread extends Thread {
+
+    private final Looper mLooper;
+
+    public HandlerThread(final String name, final int priority) {
+        super(name);
+        mLooper = new Looper(name);
+    }
+
+    @Override
+    public void run() {
+    }
+
+    public Looper getLooper() {
+        return mLooper;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JVM stand-in for Android's {@code Looper}, messages are run by a single thread executor.
+ * The main looper's thread is separate from the thread running the benchmarks, use
+ * {@link #drainMainLooper()} to wait for the work posted to it.
+ */
+public final class Looper {
+
+    private static Looper sMainLooper;
+
+    final ExecutorService mExecutor;
+
+    Looper(final String name) {
+        mExecutor = Executors.newSingleThreadExecutor(new java.util.concurrent.ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public static synchronized Looper getMainLooper() {
+        if (sMainLooper == null) {
+            sMainLooper = new Looper("main");
+        }
+        return sMainLooper;
+    }
+
+    /**
+     * Blocks until the messages posted to the main looper so far have been run.
+     */
+    public static void drainMainLooper() {
+        try {
+            getMainLooper().mExecutor.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.text;
+
+/**
+ * JVM stand-in for Android's {@code Html}. Tags are stripped and each one is recorded as a span,
+ * which approximates the cost of parsing without the framework's parser.
+ */
+public class Html {
+
+    public static Spanned fromHtml(final String source) {
+        final StringBuilder text = new StringBuilder(source.length());
+        final java.util.List<int[]> spans = new java.util.ArrayList<int[]>();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '<') {
+                int end = source.indexOf('>', i);
+                if (end == -1) {
+                    break;
+                }
+                spans.add(new int[] { text.length(), end - i });
+                i = end + 1;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        return new SpannedText(text.toString(), spans);
+    }
+
+    private static final class SpannedText implements Spanned {
+        private final String mText;
+        private final java.util.List<int[]> mSpans;
+
+        SpannedText(final String text, final java.util.List<int[]> spans) {
+            mText = text;
+            mSpans = spans;
+        }
+
+        @Override
+        public int length() {
+            return mText.length();
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return mText.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return mText.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return mText;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.util;
+
+/**
+ * JVM stand-in for Android's {@code Log}, messages are dropped.
+ */
+public final class Log {
+
+    public static int d(final String tag, final String message) {
+        return 0;
+    }
+
+    public static int w(final String tag, final String message, final Throwable throwable) {
+        return 0;
+    }
+
+}
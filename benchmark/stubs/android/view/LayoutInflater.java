@@ -0,0 +1,81 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for Android's {@code LayoutInflater}. There are no XML layouts on the JVM,
+ * layouts are registered as {@link Layout}s using {@link #registerLayout(int, Layout)}.
+ */
+public class LayoutInflater {
+
+    /**
+     * Builds the View hierarchy of a layout.
+     */
+    public interface Layout {
+        View create(Context context);
+    }
+
+    private static final Map<Integer, Layout> sLayouts = new HashMap<Integer, Layout>();
+    private static volatile long sInflationCount;
+
+    private final Context mContext;
+
+    protected LayoutInflater(final Context context) {
+        mContext = context;
+    }
+
+    public static LayoutInflater from(final Context context) {
+        return new LayoutInflater(context);
+    }
+
+    public static synchronized void registerLayout(final int layoutResId, final Layout layout) {
+        sLayouts.put(layoutResId, layout);
+    }
+
+    /**
+     * Returns the number of layouts inflated so far, by any inflater.
+     */
+    public static long getInflationCount() {
+        return sInflationCount;
+    }
+
+    public LayoutInflater cloneInContext(final Context context) {
+        return new LayoutInflater(context);
+    }
+
+    public View inflate(final int layoutResId, final ViewGroup root,
+            final boolean attachToRoot) {
+        Layout layout;
+        synchronized (LayoutInflater.class) {
+            layout = sLayouts.get(layoutResId);
+            sInflationCount++;
+        }
+        if (layout == null) {
+            throw new IllegalArgumentException("No layout " + layoutResId);
+        }
+
+        View view = layout.create(mContext);
+        if (root != null && attachToRoot) {
+            root.addView(view);
+        }
+        return view;
+    }
+
+}
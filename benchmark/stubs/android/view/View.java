@@ -0,0 +1,82 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for Android's {@code View}.
+ */
+public class View {
+
+    public static final int NO_ID = -1;
+
+    private final Context mContext;
+    private int mId = NO_ID;
+    private Object mTag;
+    private Map<Integer, Object> mKeyedTags;
+    ViewGroup mParent;
+
+    public View(final Context context) {
+        mContext = context;
+    }
+
+    public Context getContext() {
+        return mContext;
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    public void setId(final int id) {
+        mId = id;
+    }
+
+    public Object getTag() {
+        return mTag;
+    }
+
+    public void setTag(final Object tag) {
+        mTag = tag;
+    }
+
+    public Object getTag(final int key) {
+        return mKeyedTags != null ? mKeyedTags.get(key) : null;
+    }
+
+    public void setTag(final int key, final Object tag) {
+        if (mKeyedTags == null) {
+            mKeyedTags = new HashMap<Integer, Object>(2);
+        }
+        mKeyedTags.put(key, tag);
+    }
+
+    public ViewParent getParent() {
+        return mParent;
+    }
+
+    public final View findViewById(final int id) {
+        return id == NO_ID ? null : findViewTraversal(id);
+    }
+
+    View findViewTraversal(final int id) {
+        return id == mId ? this : null;
+    }
+
+}
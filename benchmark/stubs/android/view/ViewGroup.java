@@ -0,0 +1,67 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for Android's {@code ViewGroup}.
+ */
+public class ViewGroup extends View implements ViewParent {
+
+    private final List<View> mChildren = new ArrayList<View>();
+
+    public ViewGroup(final Context context) {
+        super(context);
+    }
+
+    public void addView(final View child) {
+        mChildren.add(child);
+        child.mParent = this;
+    }
+
+    public void removeAllViews() {
+        for (View child : mChildren) {
+            child.mParent = null;
+        }
+        mChildren.clear();
+    }
+
+    public int getChildCount() {
+        return mChildren.size();
+    }
+
+    public View getChildAt(final int index) {
+        return index >= 0 && index < mChildren.size() ? mChildren.get(index) : null;
+    }
+
+    @Override
+    View findViewTraversal(final int id) {
+        if (id == getId()) {
+            return this;
+        }
+        for (View child : mChildren) {
+            View view = child.findViewTraversal(id);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.database.DataSetObserver;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * JVM stand-in for Android's {@code Adapter}.
+ */
+public interface Adapter {
+
+    void registerDataSetObserver(DataSetObserver observer);
+
+    void unregisterDataSetObserver(DataSetObserver observer);
+
+    int getCount();
+
+    Object getItem(int position);
+
+    long getItemId(int position);
+
+    boolean hasStableIds();
+
+    View getView(int position, View convertView, ViewGroup parent);
+
+    int getItemViewType(int position);
+
+    int getViewTypeCount();
+
+    boolean isEmpty();
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+/**
+ * JVM stand-in for Android's {@code AdapterView}. Subclasses lay out their children and set
+ * the position of the first one using {@link #setFirstVisiblePosition(int)}.
+ */
+public abstract class AdapterView<T extends Adapter> extends ViewGroup {
+
+    public static final long INVALID_ROW_ID = Long.MIN_VALUE;
+
+    private int mFirstPosition;
+
+    public AdapterView(final Context context) {
+        super(context);
+    }
+
+    public abstract T getAdapter();
+
+    public abstract void setAdapter(T adapter);
+
+    public int getFirstVisiblePosition() {
+        return mFirstPosition;
+    }
+
+    public int getLastVisiblePosition() {
+        return mFirstPosition + getChildCount() - 1;
+    }
+
+    protected void setFirstVisiblePosition(final int firstPosition) {
+        mFirstPosition = firstPosition;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JVM stand-in for Android's {@code ArrayAdapter}, {@code getView()} is left to subclasses.
+ */
+public abstract class ArrayAdapter<T> extends BaseAdapter {
+
+    private final List<T> mObjects;
+    private boolean mNotifyOnChange = true;
+
+    public ArrayAdapter(final Context context, final int resource, final List<T> objects) {
+        mObjects = objects;
+    }
+
+    public void add(final T object) {
+        mObjects.add(object);
+        if (mNotifyOnChange) {
+            notifyDataSetChanged();
+        }
+    }
+
+    public void addAll(final Collection<? extends T> collection) {
+        mObjects.addAll(collection);
+        if (mNotifyOnChange) {
+            notifyDataSetChanged();
+        }
+    }
+
+    public void clear() {
+        mObjects.clear();
+        if (mNotifyOnChange) {
+            notifyDataSetChanged();
+        }
+    }
+
+    public void setNotifyOnChange(final boolean notifyOnChange) {
+        mNotifyOnChange = notifyOnChange;
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        super.notifyDataSetChanged();
+        mNotifyOnChange = true;
+    }
+
+    public int getCount() {
+        return mObjects.size();
+    }
+
+    public T getItem(final int position) {
+        return mObjects.get(position);
+    }
+
+    public long getItemId(final int position) {
+        return position;
+    }
+
+}
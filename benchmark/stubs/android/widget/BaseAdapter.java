@@ -0,0 +1,73 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.database.DataSetObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for Android's {@code BaseAdapter}.
+ */
+public abstract class BaseAdapter implements ListAdapter {
+
+    private final List<DataSetObserver> mObservers = new ArrayList<DataSetObserver>();
+
+    public boolean hasStableIds() {
+        return false;
+    }
+
+    public void registerDataSetObserver(final DataSetObserver observer) {
+        mObservers.add(observer);
+    }
+
+    public void unregisterDataSetObserver(final DataSetObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    public void notifyDataSetChanged() {
+        for (DataSetObserver observer : mObservers) {
+            observer.onChanged();
+        }
+    }
+
+    public void notifyDataSetInvalidated() {
+        for (DataSetObserver observer : mObservers) {
+            observer.onInvalidated();
+        }
+    }
+
+    public boolean areAllItemsEnabled() {
+        return true;
+    }
+
+    public boolean isEnabled(final int position) {
+        return true;
+    }
+
+    public int getItemViewType(final int position) {
+        return 0;
+    }
+
+    public int getViewTypeCount() {
+        return 1;
+    }
+
+    public boolean isEmpty() {
+        return getCount() == 0;
+    }
+
+}
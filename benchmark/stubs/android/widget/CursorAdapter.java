@@ -0,0 +1,111 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * JVM stand-in for Android's {@code CursorAdapter}, without content observers.
+ */
+public abstract class CursorAdapter extends BaseAdapter {
+
+    protected boolean mDataValid;
+    protected Cursor mCursor;
+    protected Context mContext;
+    protected int mRowIDColumn;
+
+    public CursorAdapter(final Context context, final Cursor cursor, final boolean autoRequery) {
+        mContext = context;
+        mCursor = cursor;
+        mDataValid = cursor != null;
+        mRowIDColumn = cursor != null ? cursor.getColumnIndex("_id") : -1;
+    }
+
+    public Cursor getCursor() {
+        return mCursor;
+    }
+
+    public int getCount() {
+        return mDataValid && mCursor != null ? mCursor.getCount() : 0;
+    }
+
+    public Object getItem(final int position) {
+        if (mDataValid && mCursor != null) {
+            mCursor.moveToPosition(position);
+            return mCursor;
+        }
+        return null;
+    }
+
+    public long getItemId(final int position) {
+        if (mDataValid && mCursor != null && mCursor.moveToPosition(position)) {
+            return mRowIDColumn != -1 ? mCursor.getLong(mRowIDColumn) : position;
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    public View getView(final int position, final View convertView, final ViewGroup parent) {
+        if (!mDataValid) {
+            throw new IllegalStateException("this should only be called when the cursor is valid");
+        }
+        if (!mCursor.moveToPosition(position)) {
+            throw new IllegalStateException("couldn't move cursor to position " + position);
+        }
+        View view = convertView != null ? convertView : newView(mContext, mCursor, parent);
+        bindView(view, mContext, mCursor);
+        return view;
+    }
+
+    public void changeCursor(final Cursor cursor) {
+        Cursor old = swapCursor(cursor);
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    public Cursor swapCursor(final Cursor newCursor) {
+        if (newCursor == mCursor) {
+            return null;
+        }
+        Cursor oldCursor = mCursor;
+        mCursor = newCursor;
+        if (newCursor != null) {
+            mRowIDColumn = newCursor.getColumnIndex("_id");
+            mDataValid = true;
+            notifyDataSetChanged();
+        } else {
+            mRowIDColumn = -1;
+            mDataValid = false;
+            notifyDataSetInvalidated();
+        }
+        return oldCursor;
+    }
+
+    protected void onContentChanged() {
+    }
+
+    public abstract View newView(Context context, Cursor cursor, ViewGroup parent);
+
+    public abstract void bindView(View view, Context context, Cursor cursor);
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for Android's {@code ListView}, without headers and without a layout pass.
+ */
+public class ListView extends AdapterView<ListAdapter> {
+
+    private ListAdapter mAdapter;
+
+    public ListView(final Context context) {
+        super(context);
+    }
+
+    @Override
+    public ListAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    @Override
+    public void setAdapter(final ListAdapter adapter) {
+        mAdapter = adapter;
+    }
+
+    public int getHeaderViewsCount() {
+        return 0;
+    }
+
+}
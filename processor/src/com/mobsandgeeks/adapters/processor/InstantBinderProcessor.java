@@ -0,0 +1,481 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor that generates an {@code InstantBinder} for every model class that
+ * declares or inherits {@code InstantText} or {@code InstantId} annotated methods. The generated
+ * binder is placed in the model's package and calls the annotated methods directly, so that
+ * {@code InstantAdapter} and {@code InstantCursorAdapter} can bind views without using
+ * reflection.
+ * <p>
+ * Methods that cannot be called from the generated binder (non-public methods, methods in
+ * private classes and annotated methods that share their name with another annotated method of
+ * a different signature) are left out, the adapters fall back to reflection for them.
+ * </p>
+ * <p>
+ * Models with {@code InstantColumn} annotated fields also get an {@code InstantColumnBinder}
+ * that fills the fields from a {@code Cursor}. Models with private annotated fields are left to
+ * reflection. Models without a no-args constructor get a warning and no column binder, since
+ * {@code InstantColumnCursorAdapter} cannot create them, they can still be created by a
+ * hand-written {@code getInstance(Cursor)}.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@SupportedAnnotationTypes({
+    InstantBinderProcessor.INSTANT_TEXT,
+    InstantBinderProcessor.INSTANT_ID,
+    InstantBinderProcessor.INSTANT_COLUMN
+})
+public class InstantBinderProcessor extends AbstractProcessor {
+
+    // Constants
+    static final String INSTANT_TEXT = "com.mobsandgeeks.adapters.InstantText";
+    static final String INSTANT_ID = "com.mobsandgeeks.adapters.InstantId";
+    static final String INSTANT_BINDER = "com.mobsandgeeks.adapters.InstantBinder";
+    static final String CONTEXT = "android.content.Context";
+    static final String BINDER_SUFFIX = "$$InstantBinder";
+    static final String INSTANT_COLUMN = "com.mobsandgeeks.adapters.InstantColumn";
+    static final String INSTANT_COLUMN_BINDER = "com.mobsandgeeks.adapters.InstantColumnBinder";
+    static final String CURSOR = "android.database.Cursor";
+    static final String COLUMN_BINDER_SUFFIX = "$$InstantColumns";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new HashSet<TypeElement>();
+        collectTypes(ElementFilter.typesIn(roundEnv.getRootElements()), types);
+
+        for (TypeElement type : types) {
+            if (!isAccessible(type)) {
+                continue;
+            }
+
+            List<ExecutableElement> methods = findAnnotatedMethods(type);
+            if (!methods.isEmpty()) {
+                writeBinder(type, methods);
+            }
+
+            // Abstract classes are only filled through their subclasses
+            List<VariableElement> fields = findAnnotatedFields(type);
+            if (fields == null || fields.isEmpty()
+                    || type.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            } else if (!hasNoArgsConstructor(type)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        String.format("%s has @InstantColumn fields but no non-private no-args " +
+                                "constructor (or is not static), InstantColumnCursorAdapter " +
+                                "cannot create it.", type.getQualifiedName()), type);
+                continue;
+            }
+            writeColumnBinder(type, fields);
+        }
+
+        return false;
+    }
+
+    private void collectTypes(final Iterable<TypeElement> rootTypes,
+            final Set<TypeElement> types) {
+        for (TypeElement type : rootTypes) {
+            types.add(type);
+            collectTypes(ElementFilter.typesIn(type.getEnclosedElements()), types);
+        }
+    }
+
+    private boolean isAccessible(final TypeElement type) {
+        // The binder lives in the model's package, so only private types are out of reach
+        Element element = type;
+        while (element instanceof TypeElement) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private List<ExecutableElement> findAnnotatedMethods(final TypeElement type) {
+        // Walk the hierarchy just like InstantAdapterCore does, subclasses first
+        Map<String, ExecutableElement> methodsByName =
+                new LinkedHashMap<String, ExecutableElement>();
+        Set<String> ambiguousNames = new HashSet<String>();
+
+        TypeElement clazz = type;
+        while (clazz != null && !Object.class.getName().equals(
+                clazz.getQualifiedName().toString())) {
+            for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                if (!(isAnnotated(method, INSTANT_TEXT) || isAnnotated(method, INSTANT_ID))
+                        || !isBindable(method)) {
+                    continue;
+                }
+
+                // Overrides have the same signature, the subclass method was found first
+                String name = method.getSimpleName().toString();
+                ExecutableElement existing = methodsByName.get(name);
+                if (existing == null) {
+                    methodsByName.put(name, method);
+                } else if (!hasSameParameterTypes(existing, method)) {
+                    ambiguousNames.add(name);
+                }
+            }
+            clazz = getSuperclass(clazz);
+        }
+
+        for (String name : ambiguousNames) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    String.format("%s.%s() is overloaded, it will be bound using reflection.",
+                            type.getQualifiedName(), name), type);
+            methodsByName.remove(name);
+        }
+
+        return new ArrayList<ExecutableElement>(methodsByName.values());
+    }
+
+    private boolean hasSameParameterTypes(final ExecutableElement method,
+            final ExecutableElement otherMethod) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends VariableElement> otherParameters = otherMethod.getParameters();
+        int nParameters = parameters.size();
+        if (nParameters != otherParameters.size()) {
+            return false;
+        }
+
+        Types typeUtils = processingEnv.getTypeUtils();
+        for (int i = 0; i < nParameters; i++) {
+            if (!typeUtils.isSameType(typeUtils.erasure(parameters.get(i).asType()),
+                    typeUtils.erasure(otherParameters.get(i).asType()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TypeElement getSuperclass(final TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private List<VariableElement> findAnnotatedFields(final TypeElement type) {
+        List<VariableElement> fields = new ArrayList<VariableElement>();
+
+        TypeElement clazz = type;
+        while (clazz != null && !Object.class.getName().equals(
+                clazz.getQualifiedName().toString())) {
+            for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+                if (!isAnnotated(field, INSTANT_COLUMN)) {
+                    continue;
+                }
+
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "@InstantColumn fields should not be static or final.", field);
+                    return null;
+                } else if (getColumnReader(field, "cursor", "0") == null) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Unsupported @InstantColumn field type " + field.asType(), field);
+                    return null;
+                } else if (modifiers.contains(Modifier.PRIVATE) || (!isSamePackage(clazz, type)
+                        && !modifiers.contains(Modifier.PUBLIC))) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            String.format("%s.%s is not accessible, %s will be filled using " +
+                                    "reflection.", clazz.getQualifiedName(), field.getSimpleName(),
+                                    type.getQualifiedName()), type);
+                    return null;
+                }
+                fields.add(field);
+            }
+            clazz = getSuperclass(clazz);
+        }
+
+        return fields;
+    }
+
+    private boolean isSamePackage(final TypeElement type, final TypeElement otherType) {
+        return processingEnv.getElementUtils().getPackageOf(type)
+                .equals(processingEnv.getElementUtils().getPackageOf(otherType));
+    }
+
+    private boolean isAnnotated(final Element element, final String annotationName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType =
+                    (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationName.equals(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getColumnName(final VariableElement field) {
+        for (AnnotationMirror annotationMirror : field.getAnnotationMirrors()) {
+            TypeElement annotationType =
+                    (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (!INSTANT_COLUMN.equals(annotationType.getQualifiedName().toString())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    annotationMirror.getElementValues().entrySet()) {
+                if ("name".equals(entry.getKey().getSimpleName().toString())) {
+                    return (String) entry.getValue().getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String getColumnReader(final VariableElement field, final String cursor,
+            final String index) {
+        TypeMirror type = field.asType();
+        switch (type.getKind()) {
+            case INT:
+                return cursor + ".getInt(" + index + ")";
+            case LONG:
+                return cursor + ".getLong(" + index + ")";
+            case SHORT:
+                return cursor + ".getShort(" + index + ")";
+            case FLOAT:
+                return cursor + ".getFloat(" + index + ")";
+            case DOUBLE:
+                return cursor + ".getDouble(" + index + ")";
+            case BOOLEAN:
+                return cursor + ".getInt(" + index + ") != 0";
+            case ARRAY:
+                return "byte[]".equals(type.toString()) ?
+                        cursor + ".getBlob(" + index + ")" : null;
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        String typeName = type.toString();
+        String isNull = cursor + ".isNull(" + index + ") ? null : ";
+        if (String.class.getName().equals(typeName)) {
+            return cursor + ".getString(" + index + ")";
+        } else if (Integer.class.getName().equals(typeName)) {
+            return isNull + "Integer.valueOf(" + cursor + ".getInt(" + index + "))";
+        } else if (Long.class.getName().equals(typeName)) {
+            return isNull + "Long.valueOf(" + cursor + ".getLong(" + index + "))";
+        } else if (Short.class.getName().equals(typeName)) {
+            return isNull + "Short.valueOf(" + cursor + ".getShort(" + index + "))";
+        } else if (Float.class.getName().equals(typeName)) {
+            return isNull + "Float.valueOf(" + cursor + ".getFloat(" + index + "))";
+        } else if (Double.class.getName().equals(typeName)) {
+            return isNull + "Double.valueOf(" + cursor + ".getDouble(" + index + "))";
+        } else if (Boolean.class.getName().equals(typeName)) {
+            return isNull + "Boolean.valueOf(" + cursor + ".getInt(" + index + ") != 0)";
+        }
+        return null;
+    }
+
+    private boolean hasNoArgsConstructor(final TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER
+                        && !type.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+
+        for (ExecutableElement constructor :
+                ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()
+                    && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBindable(final ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                || method.getReturnType().getKind() == TypeKind.VOID) {
+            return false;
+        }
+
+        int nParameters = method.getParameters().size();
+        if (nParameters == 0) {
+            return true;
+        } else if (nParameters == 1) {
+            TypeMirror contextType = processingEnv.getElementUtils()
+                    .getTypeElement(CONTEXT).asType();
+            TypeMirror parameterType = method.getParameters().get(0).asType();
+            return processingEnv.getTypeUtils().isAssignable(contextType, parameterType);
+        }
+        return false;
+    }
+
+    private void writeBinder(final TypeElement type, final List<ExecutableElement> methods) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String modelName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        String binderName = getBinaryName(type, packageName) + BINDER_SUFFIX;
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(getClass().getSimpleName())
+                .append(". Do not modify!\n");
+        if (!packageElement.isUnnamed()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("public final class ").append(binderName)
+                .append(" implements ").append(INSTANT_BINDER)
+                .append("<").append(modelName).append("> {\n\n");
+
+        source.append("    private static final String[] METHOD_NAMES = {\n");
+        for (ExecutableElement method : methods) {
+            source.append("        \"").append(method.getSimpleName()).append("\",\n");
+        }
+        source.append("    };\n\n");
+
+        source.append("    @Override\n")
+                .append("    public String[] getMethodNames() {\n")
+                .append("        return METHOD_NAMES.clone();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public Object getValue(final int index, final ").append(modelName)
+                .append(" instance, final ").append(CONTEXT).append(" context) {\n")
+                .append("        switch (index) {\n");
+        int nMethods = methods.size();
+        for (int i = 0; i < nMethods; i++) {
+            ExecutableElement method = methods.get(i);
+            source.append("            case ").append(i).append(": return instance.")
+                    .append(method.getSimpleName())
+                    .append(method.getParameters().isEmpty() ? "()" : "(context)")
+                    .append(";\n");
+        }
+        source.append("            default: throw new IndexOutOfBoundsException(")
+                .append("\"No method at index \" + index);\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        writeSourceFile(type, packageElement, binderName, source);
+    }
+
+    private void writeColumnBinder(final TypeElement type, final List<VariableElement> fields) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String modelName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        String binderName = getBinaryName(type, packageName) + COLUMN_BINDER_SUFFIX;
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(getClass().getSimpleName())
+                .append(". Do not modify!\n");
+        if (!packageElement.isUnnamed()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("public final class ").append(binderName)
+                .append(" implements ").append(INSTANT_COLUMN_BINDER)
+                .append("<").append(modelName).append("> {\n\n");
+
+        source.append("    private static final String[] COLUMN_NAMES = {\n");
+        for (VariableElement field : fields) {
+            source.append("        \"").append(getColumnName(field)).append("\",\n");
+        }
+        source.append("    };\n\n");
+
+        source.append("    @Override\n")
+                .append("    public String[] getColumnNames() {\n")
+                .append("        return COLUMN_NAMES.clone();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public ").append(modelName).append(" newInstance() {\n")
+                .append("        return new ").append(modelName).append("();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void fill(final ").append(modelName)
+                .append(" instance, final ").append(CURSOR)
+                .append(" cursor, final int[] columnIndices) {\n");
+        int nFields = fields.size();
+        for (int i = 0; i < nFields; i++) {
+            VariableElement field = fields.get(i);
+            source.append("        instance.").append(field.getSimpleName()).append(" = ")
+                    .append(getColumnReader(field, "cursor", "columnIndices[" + i + "]"))
+                    .append(";\n");
+        }
+        source.append("    }\n")
+                .append("}\n");
+
+        writeSourceFile(type, packageElement, binderName, source);
+    }
+
+    private void writeSourceFile(final TypeElement type, final PackageElement packageElement,
+            final String className, final StringBuilder source) {
+        String qualifiedClassName = packageElement.isUnnamed() ?
+                className : packageElement.getQualifiedName() + "." + className;
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler()
+                    .createSourceFile(qualifiedClassName, type);
+            Writer writer = sourceFile.openWriter();
+            try {
+                writer.write(source.toString());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + qualifiedClassName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private String getBinaryName(final TypeElement type, final String packageName) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return packageName.length() == 0 ? binaryName :
+                binaryName.substring(packageName.length() + 1);
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles models with the {@link InstantBinderProcessor} and checks the generated binders.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class InstantBinderProcessorTest {
+
+    @Test
+    public void generatesBinderForAnnotatedMethods() {
+        Compilation compilation = compile(source("test.Book",
+                "package test;",
+                "import com.mobsandgeeks.adapters.InstantText;",
+                "public class Book {",
+                "    @InstantText(viewId = 1) public String getTitle() { return null; }",
+                "    @InstantText(viewId = 2) public String getAuthor(",
+                "            android.content.Context context) { return null; }",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().contains("return instance.getTitle();");
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().contains("return instance.getAuthor(context);");
+    }
+
+    @Test
+    public void overrideIsBoundOnce() {
+        Compilation compilation = compile(
+                source("test.Base",
+                        "package test;",
+                        "import com.mobsandgeeks.adapters.InstantText;",
+                        "public class Base {",
+                        "    @InstantText(viewId = 1) public String getTitle() { return null; }",
+                        "}"),
+                source("test.Book",
+                        "package test;",
+                        "import com.mobsandgeeks.adapters.InstantText;",
+                        "public class Book extends Base {",
+                        "    @Override @InstantText(viewId = 1)",
+                        "    public String getTitle() { return \"\"; }",
+                        "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().contains("case 0: return instance.getTitle();");
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().doesNotContain("case 1:");
+    }
+
+    @Test
+    public void overloadWithDifferentParameterCountIsLeftToReflection() {
+        Compilation compilation = compile(source("test.Book",
+                "package test;",
+                "import com.mobsandgeeks.adapters.InstantText;",
+                "public class Book {",
+                "    @InstantText(viewId = 1) public String getTitle() { return null; }",
+                "    @InstantText(viewId = 2) public String getTitle(",
+                "            android.content.Context context) { return null; }",
+                "    @InstantText(viewId = 3) public String getAuthor() { return null; }",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("test.Book.getTitle() is overloaded");
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().doesNotContain("getTitle");
+    }
+
+    @Test
+    public void overloadWithSameParameterCountIsLeftToReflection() {
+        Compilation compilation = compile(
+                source("test.Base",
+                        "package test;",
+                        "import com.mobsandgeeks.adapters.InstantText;",
+                        "public class Base {",
+                        "    @InstantText(viewId = 1) public String getTitle(",
+                        "            android.content.Context context) { return null; }",
+                        "}"),
+                source("test.Book",
+                        "package test;",
+                        "import com.mobsandgeeks.adapters.InstantText;",
+                        "public class Book extends Base {",
+                        "    @InstantText(viewId = 2) public String getTitle(",
+                        "            Object context) { return null; }",
+                        "    @InstantText(viewId = 3) public String getAuthor() { return null; }",
+                        "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("test.Book.getTitle() is overloaded");
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().doesNotContain("getTitle");
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantBinder")
+                .contentsAsUtf8String().contains("return instance.getAuthor();");
+    }
+
+    @Test
+    public void columnsAreBoundWithNoArgsConstructor() {
+        Compilation compilation = compile(source("test.Book",
+                "package test;",
+                "import com.mobsandgeeks.adapters.InstantColumn;",
+                "public class Book {",
+                "    @InstantColumn(name = \"title\") String title;",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("test.Book$$InstantColumns")
+                .contentsAsUtf8String().contains("return new test.Book();");
+    }
+
+    @Test
+    public void columnsWithoutNoArgsConstructorAreOnlyWarnedAbout() {
+        Compilation compilation = compile(source("test.Book",
+                "package test;",
+                "import com.mobsandgeeks.adapters.InstantColumn;",
+                "public class Book {",
+                "    @InstantColumn(name = \"title\") String title;",
+                "    public Book(String title) { this.title = title; }",
+                "}"));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "test.Book has @InstantColumn fields but no non-private no-args constructor");
+        assertTrue(compilation.generatedSourceFiles().isEmpty());
+    }
+
+    private static Compilation compile(final JavaFileObject... sources) {
+        return javac().withProcessors(new InstantBinderProcessor()).compile(sources);
+    }
+
+    private static JavaFileObject source(final String className, final String... lines) {
+        return JavaFileObjects.forSourceLines(className, lines);
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the value of an annotated method from a model instance. An {@link Accessor} is
+ * resolved once per annotated method when the model is scanned, the strategy and the arity of
+ * the method are fixed at that point so that reading a value does not have to inspect the
+ * {@link Method} again.
+ * <p>
+ * Generated {@link InstantBinder}s are preferred, reflection is used as a last resort.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+abstract class Accessor {
+
+    // Constants
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /**
+     * Returns the value of the annotated method.
+     *
+     * @param instance The model instance.
+     * @param context The {@link Context} for methods that accept one.
+     *
+     * @return The value returned by the method, or {@code null} if the invocation failed.
+     */
+    abstract Object get(Object instance, Context context);
+
+    /**
+     * Resolves an {@link Accessor} for the given method.
+     *
+     * @param method The annotated method.
+     * @param binder The generated {@link InstantBinder} for the model, may be {@code null}.
+     * @param binderIndex Index of the method within the binder, -1 if it isn't bound by it.
+     *
+     * @return An {@link Accessor} for the method.
+     */
+    static Accessor create(final Method method, final InstantBinder<Object> binder,
+            final int binderIndex) {
+        if (binder != null && binderIndex != -1) {
+            return new BinderAccessor(binder, binderIndex);
+        }
+
+        try {
+            // Skips the access checks on every invocation
+            method.setAccessible(true);
+        } catch (SecurityException e) {
+            // We can still call public methods of public classes
+        }
+
+        return method.getParameterTypes().length == 0 ?
+                new NoArgsReflectiveAccessor(method) : new ContextReflectiveAccessor(method);
+    }
+
+    /**
+     * Calls the method through a generated {@link InstantBinder}.
+     */
+    static final class BinderAccessor extends Accessor {
+        private final InstantBinder<Object> mBinder;
+        private final int mIndex;
+
+        BinderAccessor(final InstantBinder<Object> binder, final int index) {
+            mBinder = binder;
+            mIndex = index;
+        }
+
+        @Override
+        Object get(final Object instance, final Context context) {
+            return mBinder.getValue(mIndex, instance, context);
+        }
+    }
+
+    /**
+     * Calls a no-args method using reflection, without allocating an arguments array.
+     */
+    static final class NoArgsReflectiveAccessor extends Accessor {
+        private final Method mMethod;
+
+        NoArgsReflectiveAccessor(final Method method) {
+            mMethod = method;
+        }
+
+        @Override
+        Object get(final Object instance, final Context context) {
+            try {
+                return mMethod.invoke(instance, NO_ARGS);
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            } catch (InvocationTargetException e) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Calls a method that accepts a single {@link Context} using reflection.
+     */
+    static final class ContextReflectiveAccessor extends Accessor {
+        private final Method mMethod;
+
+        ContextReflectiveAccessor(final Method method) {
+            mMethod = method;
+        }
+
+        @Override
+        Object get(final Object instance, final Context context) {
+            try {
+                return mMethod.invoke(instance, context);
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            } catch (InvocationTargetException e) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+}
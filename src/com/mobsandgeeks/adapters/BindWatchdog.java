@@ -0,0 +1,282 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link BindingMonitor} that flags {@code getView()} calls which take longer than a budget,
+ * e.g. 4 ms of a 16 ms frame. For each one it keeps the position, the model class and the
+ * slowest step along with its View id, in a ring buffer of the most recent violations. Binds
+ * within the budget cost a few comparisons and nothing is allocated until the violations are
+ * read, so the watchdog can be left on in production builds.
+ * <p>
+ * Use one watchdog per adapter, binds are expected to be made on the UI thread. Another
+ * {@link BindingMonitor}, such as a {@link BindingStats}, can be chained to the watchdog.
+ * </p>
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * BindWatchdog bindWatchdog = new BindWatchdog(4, TimeUnit.MILLISECONDS, 32);
+ * bookAdapter.setBindingMonitor(bindWatchdog);
+ * 
+ * for (BindWatchdog.Violation violation : bindWatchdog.getViolations()) {
+ *     Log.w(TAG, violation.toString());
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class BindWatchdog implements BindingMonitor {
+
+    // Attributes
+    private final long mBudgetNanos;
+    private final BindingMonitor mBindingMonitor;
+
+    // The bind in progress
+    private int mSlowestStep = -1;
+    private int mSlowestViewId;
+    private long mSlowestNanos;
+
+    // Ring buffer of violations
+    private final Class<?>[] mDataTypes;
+    private final int[] mPositions;
+    private final int[] mSteps;
+    private final int[] mViewIds;
+    private final long[] mStepNanos;
+    private final long[] mBindNanos;
+    private final long[] mTimestamps;
+    private long mViolationCount;
+
+    /**
+     * Constructs a new {@link BindWatchdog}.
+     *
+     * @param budget The longest a {@code getView()} call may take.
+     * @param unit The unit of {@code budget}.
+     * @param maxViolations Number of recent violations to keep.
+     *
+     * @throws IllegalArgumentException If {@code budget} is negative, {@code unit} is
+     *          {@code null} or {@code maxViolations} is less than 1.
+     */
+    public BindWatchdog(final long budget, final TimeUnit unit, final int maxViolations) {
+        this(budget, unit, maxViolations, null);
+    }
+
+    /**
+     * Constructs a new {@link BindWatchdog} that passes every callback on to another
+     * {@link BindingMonitor}.
+     *
+     * @param budget The longest a {@code getView()} call may take.
+     * @param unit The unit of {@code budget}.
+     * @param maxViolations Number of recent violations to keep.
+     * @param bindingMonitor The {@link BindingMonitor} to chain, may be {@code null}.
+     *
+     * @throws IllegalArgumentException If {@code budget} is negative, {@code unit} is
+     *          {@code null} or {@code maxViolations} is less than 1.
+     */
+    public BindWatchdog(final long budget, final TimeUnit unit, final int maxViolations,
+            final BindingMonitor bindingMonitor) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("'budget' cannot be negative.");
+        } else if (unit == null) {
+            throw new IllegalArgumentException("'unit' cannot be null.");
+        } else if (maxViolations < 1) {
+            throw new IllegalArgumentException("'maxViolations' should be greater than 0.");
+        }
+
+        mBudgetNanos = unit.toNanos(budget);
+        mBindingMonitor = bindingMonitor;
+        mDataTypes = new Class<?>[maxViolations];
+        mPositions = new int[maxViolations];
+        mSteps = new int[maxViolations];
+        mViewIds = new int[maxViolations];
+        mStepNanos = new long[maxViolations];
+        mBindNanos = new long[maxViolations];
+        mTimestamps = new long[maxViolations];
+    }
+
+    @Override
+    public void onBindStarted(final Class<?> dataType, final int position) {
+        mSlowestStep = -1;
+        mSlowestViewId = View.NO_ID;
+        mSlowestNanos = 0;
+
+        if (mBindingMonitor != null) {
+            mBindingMonitor.onBindStarted(dataType, position);
+        }
+    }
+
+    @Override
+    public void onStep(final Class<?> dataType, final int viewId, final int step,
+            final long nanos) {
+        if (nanos > mSlowestNanos) {
+            mSlowestStep = step;
+            mSlowestViewId = viewId;
+            mSlowestNanos = nanos;
+        }
+
+        if (mBindingMonitor != null) {
+            mBindingMonitor.onStep(dataType, viewId, step, nanos);
+        }
+    }
+
+    @Override
+    public void onBindFinished(final Class<?> dataType, final int position, final long nanos) {
+        if (nanos > mBudgetNanos) {
+            record(dataType, position, nanos);
+        }
+
+        if (mBindingMonitor != null) {
+            mBindingMonitor.onBindFinished(dataType, position, nanos);
+        }
+    }
+
+    /**
+     * Returns the budget, in nanoseconds.
+     */
+    public long getBudgetNanos() {
+        return mBudgetNanos;
+    }
+
+    /**
+     * Returns the most recent violations, oldest first.
+     */
+    public synchronized List<Violation> getViolations() {
+        int capacity = mPositions.length;
+        int nViolations = (int) Math.min(mViolationCount, capacity);
+        List<Violation> violations = new ArrayList<Violation>(nViolations);
+        for (long i = mViolationCount - nViolations; i < mViolationCount; i++) {
+            int index = (int) (i % capacity);
+            violations.add(new Violation(mDataTypes[index], mPositions[index], mSteps[index],
+                    mViewIds[index], mStepNanos[index], mBindNanos[index],
+                    mTimestamps[index]));
+        }
+        return violations;
+    }
+
+    /**
+     * Returns the number of violations since the watchdog was created or cleared, including
+     * those that have been dropped from the ring buffer.
+     */
+    public synchronized long getViolationCount() {
+        return mViolationCount;
+    }
+
+    /**
+     * Drops all the violations.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < mDataTypes.length; i++) {
+            mDataTypes[i] = null;
+        }
+        mViolationCount = 0;
+    }
+
+    private synchronized void record(final Class<?> dataType, final int position,
+            final long nanos) {
+        int index = (int) (mViolationCount % mPositions.length);
+        mDataTypes[index] = dataType;
+        mPositions[index] = position;
+        mSteps[index] = mSlowestStep;
+        mViewIds[index] = mSlowestViewId;
+        mStepNanos[index] = mSlowestNanos;
+        mBindNanos[index] = nanos;
+        mTimestamps[index] = System.currentTimeMillis();
+        mViolationCount++;
+    }
+
+    /**
+     * A {@code getView()} call that went over the budget.
+     */
+    public static final class Violation {
+        private final Class<?> mDataType;
+        private final int mPosition;
+        private final int mStep;
+        private final int mViewId;
+        private final long mStepNanos;
+        private final long mBindNanos;
+        private final long mTimestamp;
+
+        Violation(final Class<?> dataType, final int position, final int step,
+                final int viewId, final long stepNanos, final long bindNanos,
+                final long timestamp) {
+            mDataType = dataType;
+            mPosition = position;
+            mStep = step;
+            mViewId = viewId;
+            mStepNanos = stepNanos;
+            mBindNanos = bindNanos;
+            mTimestamp = timestamp;
+        }
+
+        public Class<?> getDataType() {
+            return mDataType;
+        }
+
+        public int getPosition() {
+            return mPosition;
+        }
+
+        /**
+         * Returns the slowest step of the bind, one of the {@code STEP_} constants of
+         * {@link BindingMonitor}, or -1 if no step was reported.
+         */
+        public int getStep() {
+            return mStep;
+        }
+
+        /**
+         * Returns the id of the View the slowest step was for.
+         */
+        public int getViewId() {
+            return mViewId;
+        }
+
+        /**
+         * Returns the time spent in the slowest step, in nanoseconds.
+         */
+        public long getStepNanos() {
+            return mStepNanos;
+        }
+
+        /**
+         * Returns the time spent in {@code getView()}, in nanoseconds.
+         */
+        public long getBindNanos() {
+            return mBindNanos;
+        }
+
+        /**
+         * Returns when the violation happened, in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return mTimestamp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s at position %d took %dns, slowest step %s on 0x%08x took "
+                    + "%dns", mDataType.getSimpleName(), mPosition, mBindNanos,
+                    BindingStats.getStepName(mStep), mViewId, mStepNanos);
+        }
+    }
+
+}
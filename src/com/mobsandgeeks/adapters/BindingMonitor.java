@@ -0,0 +1,93 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.view.View;
+import android.widget.TextView;
+
+/**
+ * Receives the time spent in each step of binding a row, for finding out which annotated
+ * method or {@link ViewHandler} is slow. Each {@code getView()} call is reported as a bind,
+ * including inflating the row and, for {@link InstantCursorAdapter}, reading the model from
+ * the cursor. Rows rebound by {@code notifyViewsChanged()} only report their steps. Set one using
+ * {@link InstantAdapter#setBindingMonitor(BindingMonitor)} or
+ * {@link InstantCursorAdapter#setBindingMonitor(BindingMonitor)}, {@link BindingStats} is a
+ * ready-made implementation that aggregates the timings.
+ * <p>
+ * Callbacks are made on the thread that binds the rows, usually the UI thread, so
+ * implementations should be quick and should not allocate. Without a monitor, rows are bound
+ * without being timed.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public interface BindingMonitor {
+
+    /** Invoking an {@link InstantText} annotated method. */
+    int STEP_GETTER = 0;
+
+    /** Applying the {@link InstantText} date pattern. */
+    int STEP_DATE_PATTERN = 1;
+
+    /** Applying the {@link InstantText} format string. */
+    int STEP_FORMAT_STRING = 2;
+
+    /** Parsing HTML for an {@link InstantText} with {@code isHtml} set. */
+    int STEP_HTML = 3;
+
+    /** Setting the text of a {@link TextView}. */
+    int STEP_SET_TEXT = 4;
+
+    /** Invoking a {@link ViewHandler}. */
+    int STEP_VIEW_HANDLER = 5;
+
+    /** Inflating a row, or taking one from the warm view pool. */
+    int STEP_INFLATE = 6;
+
+    /** Reading an instance from an {@link InstantCursorAdapter}'s cursor. */
+    int STEP_INSTANCE = 7;
+
+    /** Number of steps, step constants are less than this value. */
+    int STEP_COUNT = 8;
+
+    /**
+     * Called when an adapter's {@code getView()} starts.
+     *
+     * @param dataType The model bound to the row.
+     * @param position The row's position.
+     */
+    void onBindStarted(Class<?> dataType, int position);
+
+    /**
+     * Called after each step of binding a row.
+     *
+     * @param dataType The model bound to the row.
+     * @param viewId Id of the {@link View} the step was for, the layout resource id for
+     *          {@link ViewHandler}s that handle the whole row and for inflating it,
+     *          {@link View#NO_ID} for reading an instance.
+     * @param step One of the {@code STEP_} constants.
+     * @param nanos Time spent in the step, in nanoseconds.
+     */
+    void onStep(Class<?> dataType, int viewId, int step, long nanos);
+
+    /**
+     * Called when an adapter's {@code getView()} returns.
+     *
+     * @param dataType The model bound to the row.
+     * @param position The row's position.
+     * @param nanos Time spent in {@code getView()}, in nanoseconds.
+     */
+    void onBindFinished(Class<?> dataType, int position, long nanos);
+}
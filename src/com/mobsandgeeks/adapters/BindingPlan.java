@@ -0,0 +1,89 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import com.mobsandgeeks.adapters.Bindings.Meta;
+
+/**
+ * The steps for binding a model's {@link InstantText} annotated methods to a row, compiled
+ * once per model and layout. Each step holds what binding its slot needs, the {@link Accessor},
+ * the annotation attributes read up front and the compiled date pattern and format string, so
+ * that binding a row neither looks at the annotations nor searches for anything. Steps are in
+ * binding slot order, see {@link Bindings#getSlotViewIds()}. Plans are immutable and can be
+ * shared between threads.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class BindingPlan {
+
+    private final Step[] mSteps;
+
+    private BindingPlan(final Step[] steps) {
+        mSteps = steps;
+    }
+
+    /**
+     * Compiles the plan for the slots of the given {@link Bindings}.
+     *
+     * @param bindings The {@link Bindings} of a model and layout.
+     *
+     * @return The compiled plan.
+     */
+    static BindingPlan compile(final Bindings bindings) {
+        int[] viewIds = bindings.getSlotViewIds();
+        Meta[] metas = bindings.getSlotMetas();
+        int nSlots = metas.length;
+
+        Step[] steps = new Step[nSlots];
+        for (int i = 0; i < nSlots; i++) {
+            InstantText instantText = (InstantText) metas[i].annotation;
+            steps[i] = new Step(viewIds[i], metas[i].accessor,
+                    bindings.compileDatePattern(instantText), bindings.compileFormat(instantText),
+                    instantText.isHtml(), instantText.skipUnchanged());
+        }
+        return new BindingPlan(steps);
+    }
+
+    /**
+     * Returns the steps, one per binding slot. The returned array must not be modified.
+     */
+    Step[] getSteps() {
+        return mSteps;
+    }
+
+    /**
+     * Binds a single slot. The date pattern and the format string are resolved when the plan is
+     * compiled, {@code null} means the slot has none, so neither is looked up again.
+     */
+    static final class Step {
+        final int viewId;
+        final Accessor accessor;
+        final CompiledDatePattern datePattern;
+        final CompiledFormat format;
+        final boolean isHtml;
+        final boolean skipUnchanged;
+
+        Step(final int viewId, final Accessor accessor, final CompiledDatePattern datePattern,
+                final CompiledFormat format, final boolean isHtml, final boolean skipUnchanged) {
+            this.viewId = viewId;
+            this.accessor = accessor;
+            this.datePattern = datePattern;
+            this.format = format;
+            this.isHtml = isHtml;
+            this.skipUnchanged = skipUnchanged;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Process-wide registry of {@link Bindings}, keyed by model class and layout resource id.
+ * Adapters created for a model and layout that have been seen before reuse the scanned methods
+ * and the compiled formatters instead of building them again. Entries are rebuilt when the
+ * default {@link Locale} or {@link TimeZone} changes, because the formatters depend on them, and
+ * when the adapter's {@link Context} resolves the string resources of the annotations to
+ * different values, e.g. for an Activity with a different configuration.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class BindingRegistry {
+
+    private static final Map<Key, Bindings> sBindings = new HashMap<Key, Bindings>();
+
+    private BindingRegistry() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    /**
+     * Returns the {@link Bindings} for the given data type and layout, creating them if
+     * necessary. This method is thread-safe.
+     *
+     * @param context The {@link Context} used to resolve string resources, not retained.
+     * @param dataType The data type backed by the adapter.
+     * @param layoutResourceId The resource id of the XML layout.
+     *
+     * @return The shared {@link Bindings}.
+     */
+    static Bindings obtain(final Context context, final Class<?> dataType,
+            final int layoutResourceId) {
+        Key key = new Key(dataType, layoutResourceId);
+        Locale locale = Locale.getDefault();
+        TimeZone timeZone = TimeZone.getDefault();
+
+        synchronized (sBindings) {
+            Bindings bindings = sBindings.get(key);
+            if (bindings == null || !bindings.isCurrent(context, locale, timeZone)) {
+                bindings = new Bindings(context, dataType, layoutResourceId, locale, timeZone);
+                sBindings.put(key, bindings);
+            }
+            return bindings;
+        }
+    }
+
+    private static final class Key {
+        final Class<?> dataType;
+        final int layoutResourceId;
+
+        Key(final Class<?> dataType, final int layoutResourceId) {
+            this.dataType = dataType;
+            this.layoutResourceId = layoutResourceId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return layoutResourceId == other.layoutResourceId && dataType == other.dataType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * dataType.hashCode() + layoutResourceId;
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link BindingMonitor} that counts the steps of binding rows and adds up the time spent in
+ * them, per model class and View id. {@code getView()} calls are counted per model class, under
+ * {@link View#NO_ID} and {@link #STEP_BIND}. Take a {@link #snapshot()} to export the numbers to
+ * your own metrics.
+ * <p>
+ * Recording a step does not allocate, except the first time a model class and View id is seen.
+ * Counters are striped by thread, so that threads binding rows at the same time do not contend
+ * for the same counters. Stripes are padded so that they do not share cache lines.
+ * </p>
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * BindingStats bindingStats = new BindingStats();
+ * bookAdapter.setBindingMonitor(bindingStats);
+ * 
+ * for (BindingStats.Stat stat : bindingStats.snapshot()) {
+ *     Log.d(TAG, stat.toString());
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class BindingStats implements BindingMonitor {
+
+    // Constants
+    /** A whole {@code getView()} call, recorded under {@link View#NO_ID}. */
+    public static final int STEP_BIND = STEP_COUNT;
+
+    private static final String[] STEP_NAMES = {
+        "getter", "datePattern", "formatString", "html", "setText", "viewHandler", "inflate",
+        "instance", "bind"
+    };
+    private static final int STRIPE_COUNT = 4;
+    private static final int SLOT_COUNT = STEP_COUNT + 1;
+
+    // Offsets of the counters within a slot
+    private static final int COUNT = 0;
+    private static final int TOTAL_NANOS = 1;
+    private static final int MAX_NANOS = 2;
+    private static final int FIELD_COUNT = 3;
+
+    // Stripes are a whole number of cache lines apart, with a free line around each of them
+    private static final int CACHE_LINE_LONGS = 8;
+    private static final int STRIPE_LENGTH = ((SLOT_COUNT * FIELD_COUNT + CACHE_LINE_LONGS - 1)
+            / CACHE_LINE_LONGS + 1) * CACHE_LINE_LONGS;
+
+    // Attributes, replaced by a larger copy when a new key is seen
+    private volatile Counters[] mCounters = new Counters[0];
+
+    /**
+     * Returns a readable name for a step.
+     *
+     * @param step One of the {@code STEP_} constants of {@link BindingMonitor}, or
+     *          {@link #STEP_BIND}.
+     */
+    public static String getStepName(final int step) {
+        return step >= 0 && step < STEP_NAMES.length ? STEP_NAMES[step] : "unknown";
+    }
+
+    @Override
+    public void onBindStarted(final Class<?> dataType, final int position) {
+        // Binds are recorded when they finish
+    }
+
+    @Override
+    public void onStep(final Class<?> dataType, final int viewId, final int step,
+            final long nanos) {
+        getCounters(dataType, viewId).record(step, nanos);
+    }
+
+    @Override
+    public void onBindFinished(final Class<?> dataType, final int position, final long nanos) {
+        getCounters(dataType, View.NO_ID).record(STEP_BIND, nanos);
+    }
+
+    /**
+     * Returns the numbers recorded so far, one {@link Stat} for every model class, View id and
+     * step that was recorded at least once. Steps recorded while the snapshot is being taken
+     * may or may not be included.
+     */
+    public List<Stat> snapshot() {
+        List<Stat> stats = new ArrayList<Stat>();
+        for (Counters counters : mCounters) {
+            for (int step = 0; step < SLOT_COUNT; step++) {
+                long count = 0;
+                long totalNanos = 0;
+                long maxNanos = 0;
+                for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+                    int index = Counters.indexOf(stripe, step);
+                    count += counters.values.get(index + COUNT);
+                    totalNanos += counters.values.get(index + TOTAL_NANOS);
+                    maxNanos = Math.max(maxNanos, counters.values.get(index + MAX_NANOS));
+                }
+                if (count > 0) {
+                    stats.add(new Stat(counters.dataType, counters.viewId, step, count,
+                            totalNanos, maxNanos));
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Sets all the counters to zero. Steps recorded while resetting may survive the reset.
+     */
+    public void reset() {
+        for (Counters counters : mCounters) {
+            AtomicLongArray values = counters.values;
+            for (int i = 0; i < values.length(); i++) {
+                values.set(i, 0);
+            }
+        }
+    }
+
+    private Counters getCounters(final Class<?> dataType, final int viewId) {
+        // There are only a few dozen keys, a scan is as fast as hashing and does not box
+        Counters[] allCounters = mCounters;
+        for (Counters counters : allCounters) {
+            if (counters.viewId == viewId && counters.dataType == dataType) {
+                return counters;
+            }
+        }
+        return addCounters(dataType, viewId);
+    }
+
+    private synchronized Counters addCounters(final Class<?> dataType, final int viewId) {
+        Counters[] allCounters = mCounters;
+        for (Counters counters : allCounters) {
+            if (counters.viewId == viewId && counters.dataType == dataType) {
+                return counters;
+            }
+        }
+
+        Counters counters = new Counters(dataType, viewId);
+        Counters[] newCounters = new Counters[allCounters.length + 1];
+        System.arraycopy(allCounters, 0, newCounters, 0, allCounters.length);
+        newCounters[allCounters.length] = counters;
+        mCounters = newCounters;
+        return counters;
+    }
+
+    /**
+     * The counters of a model class and View id, a count, a total and a maximum per step and
+     * per stripe.
+     */
+    private static class Counters {
+        final Class<?> dataType;
+        final int viewId;
+        final AtomicLongArray values;
+
+        Counters(final Class<?> dataType, final int viewId) {
+            this.dataType = dataType;
+            this.viewId = viewId;
+            this.values = new AtomicLongArray(CACHE_LINE_LONGS + STRIPE_COUNT * STRIPE_LENGTH);
+        }
+
+        static int indexOf(final int stripe, final int step) {
+            return CACHE_LINE_LONGS + stripe * STRIPE_LENGTH + step * FIELD_COUNT;
+        }
+
+        void record(final int step, final long nanos) {
+            int stripe = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+            int index = indexOf(stripe, step);
+            values.incrementAndGet(index + COUNT);
+            values.addAndGet(index + TOTAL_NANOS, nanos);
+
+            long maxNanos = values.get(index + MAX_NANOS);
+            while (nanos > maxNanos
+                    && !values.compareAndSet(index + MAX_NANOS, maxNanos, nanos)) {
+                maxNanos = values.get(index + MAX_NANOS);
+            }
+        }
+    }
+
+    /**
+     * The numbers recorded for a model class, View id and step.
+     */
+    public static final class Stat {
+        private final Class<?> mDataType;
+        private final int mViewId;
+        private final int mStep;
+        private final long mCount;
+        private final long mTotalNanos;
+        private final long mMaxNanos;
+
+        Stat(final Class<?> dataType, final int viewId, final int step, final long count,
+                final long totalNanos, final long maxNanos) {
+            mDataType = dataType;
+            mViewId = viewId;
+            mStep = step;
+            mCount = count;
+            mTotalNanos = totalNanos;
+            mMaxNanos = maxNanos;
+        }
+
+        public Class<?> getDataType() {
+            return mDataType;
+        }
+
+        /**
+         * Returns the View id, {@link View#NO_ID} for {@link BindingStats#STEP_BIND}.
+         */
+        public int getViewId() {
+            return mViewId;
+        }
+
+        /**
+         * Returns one of the {@code STEP_} constants, see {@link BindingStats#getStepName(int)}.
+         */
+        public int getStep() {
+            return mStep;
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        public long getMeanNanos() {
+            return mCount > 0 ? mTotalNanos / mCount : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s 0x%08x %s: count=%d, mean=%dns, max=%dns",
+                    mDataType.getSimpleName(), mViewId, getStepName(mStep), mCount,
+                    getMeanNanos(), mMaxNanos);
+        }
+    }
+
+}
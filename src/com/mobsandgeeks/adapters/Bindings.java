@@ -0,0 +1,359 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Binding metadata for a model class and layout pair. The model hierarchy is scanned for
+ * annotated methods once, when the {@link Bindings} is constructed. Formatters are resolved
+ * lazily and cached for the lifetime of the instance. String resources are resolved up front,
+ * so that the {@link Context} is not retained. Instances are shared between adapters through the
+ * {@link BindingRegistry}, so they should not hold on to anything that belongs to a single
+ * adapter.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class Bindings {
+
+    // Debug
+    private static final String LOG_TAG = Bindings.class.getSimpleName();
+    private static final boolean DEBUG = InstantAdapterCore.DEBUG;
+
+    // Constants
+    private static final String EMPTY_STRING = "";
+    private static final String BINDER_SUFFIX = "$$InstantBinder";
+
+    // Attributes
+    private final Class<?> mDataType;
+    private final int mLayoutResourceId;
+    private final Locale mLocale;
+    private final TimeZone mTimeZone;
+    private final SparseArray<String> mStringResources;
+    private final SparseArray<Meta> mViewIdsAndMetaCache;
+    private int[] mSlotViewIds;
+    private Meta[] mSlotMetas;
+    private Meta mIdMeta;
+    private InstantBinder<Object> mBinder;
+    private BindingPlan mBindingPlan;
+
+    /**
+     * Scans the given data type for annotated methods.
+     *
+     * @param context The {@link Context} used to resolve string resources, not retained.
+     * @param dataType The data type backed by the adapters.
+     * @param layoutResourceId The resource id of the XML layout.
+     * @param locale The {@link Locale} the formatters are created for.
+     * @param timeZone The {@link TimeZone} dates are formatted in.
+     */
+    Bindings(final Context context, final Class<?> dataType, final int layoutResourceId,
+            final Locale locale, final TimeZone timeZone) {
+        mDataType = dataType;
+        mLayoutResourceId = layoutResourceId;
+        mLocale = locale;
+        mTimeZone = timeZone;
+        mStringResources = new SparseArray<String>();
+        mViewIdsAndMetaCache = new SparseArray<Meta>();
+
+        // Setup
+        findAnnotatedMethods();
+        resolveStringResources(context);
+        loadGeneratedBinder();
+        createAccessors();
+        createSlots();
+    }
+
+    /**
+     * Class holds reference to a View's annotation, it's annotated method and the
+     * {@link Accessor} used to read the method's value.
+     */
+    static class Meta {
+        final Annotation annotation;
+        final Method method;
+        Accessor accessor;
+
+        Meta(final Annotation annotation, final Method method) {
+            this.annotation = annotation;
+            this.method = method;
+        }
+    }
+
+    Class<?> getDataType() {
+        return mDataType;
+    }
+
+    int getLayoutResourceId() {
+        return mLayoutResourceId;
+    }
+
+    /**
+     * Checks if these {@link Bindings} were created for the given {@link Locale} and
+     * {@link TimeZone}, and if the given {@link Context} resolves the string resources used by
+     * the annotations to the same values, e.g. when it has a different configuration.
+     */
+    boolean isCurrent(final Context context, final Locale locale, final TimeZone timeZone) {
+        if (!mLocale.equals(locale) || !mTimeZone.getID().equals(timeZone.getID())) {
+            return false;
+        }
+
+        int size = mStringResources.size();
+        for (int i = 0; i < size; i++) {
+            if (!mStringResources.valueAt(i).equals(
+                    context.getString(mStringResources.keyAt(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the View ids of the binding slots. Slots are ordered by View id, the arrays
+     * returned by {@link #getSlotViewIds()} and {@link #getSlotMetas()} are parallel and must
+     * not be modified.
+     */
+    int[] getSlotViewIds() {
+        return mSlotViewIds;
+    }
+
+    /**
+     * Returns the {@link Meta}s of the binding slots, see {@link #getSlotViewIds()}.
+     */
+    Meta[] getSlotMetas() {
+        return mSlotMetas;
+    }
+
+    /**
+     * Returns the {@link Meta} of the {@link InstantId} annotated method, {@code null} if the
+     * model does not have one.
+     */
+    Meta getIdMeta() {
+        return mIdMeta;
+    }
+
+    /**
+     * Returns the {@link BindingPlan} for the slots, compiled the first time it is requested.
+     */
+    synchronized BindingPlan getBindingPlan() {
+        if (mBindingPlan == null) {
+            mBindingPlan = BindingPlan.compile(this);
+        }
+        return mBindingPlan;
+    }
+
+    /**
+     * Compiles the date pattern of the given annotation, resolving string resources.
+     *
+     * @return The {@link CompiledDatePattern} or {@code null} if the annotation does not
+     *          specify a date pattern.
+     */
+    CompiledDatePattern compileDatePattern(final InstantText instantText) {
+        int datePatternRes = instantText.datePatternResId();
+        String datePattern = datePatternRes != 0 ?
+                mStringResources.get(datePatternRes) : instantText.datePattern();
+
+        return datePattern != null && !EMPTY_STRING.equals(datePattern) ?
+                CompiledDatePattern.compile(datePattern, mLocale, mTimeZone) : null;
+    }
+
+    /**
+     * Compiles the format string of the given annotation, resolving string resources.
+     *
+     * @return The {@link CompiledFormat} or {@code null} if the annotation does not specify a
+     *          format string.
+     */
+    CompiledFormat compileFormat(final InstantText instantText) {
+        int formatStringRes = instantText.formatStringResId();
+        String formatString = formatStringRes != 0 ?
+                mStringResources.get(formatStringRes) : instantText.formatString();
+
+        return formatString != null && !EMPTY_STRING.equals(formatString) ?
+                CompiledFormat.compile(formatString, mLocale) : null;
+    }
+
+    private void findAnnotatedMethods() {
+        Class<?> clazz = mDataType;
+        do {
+            findAnnotatedMethods(clazz);
+            clazz = clazz.getSuperclass();
+        } while (!clazz.equals(Object.class));
+
+        if (DEBUG) {
+            Log.d(LOG_TAG, String.format("Found %d method(s)", mViewIdsAndMetaCache.size()));
+        }
+    }
+
+    private void findAnnotatedMethods(Class<?> clazz) {
+        if (DEBUG) {
+            Log.d(LOG_TAG, "Looking for methods in " + clazz.getName());
+        }
+
+        Method[] declaredMethods = clazz.getDeclaredMethods();
+        for (Method method : declaredMethods) {
+            Annotation[] annotations = method.getAnnotations();
+            for (Annotation annotation : annotations) {
+                if (isInstantAnnotation(annotation)) {
+                    // Assertions
+                    assertMethodIsPublic(method);
+                    assertNoParamsOrSingleContextParam(method);
+                    assertNonVoidReturnType(method);
+
+                    // TODO Check if view type is compatible with the annotation
+                    Meta meta = new Meta(annotation, method);
+                    if (annotation instanceof InstantText) {
+                        mViewIdsAndMetaCache.append(((InstantText) annotation).viewId(), meta);
+                    }
+                } else if (annotation instanceof InstantId && mIdMeta == null) {
+                    // Subclasses are scanned first and override their superclasses
+                    assertMethodIsPublic(method);
+                    assertNoParamsOrSingleContextParam(method);
+                    assertIdReturnType(method);
+                    mIdMeta = new Meta(annotation, method);
+                }
+            }
+        }
+    }
+
+    private void resolveStringResources(final Context context) {
+        int size = mViewIdsAndMetaCache.size();
+        for (int i = 0; i < size; i++) {
+            InstantText instantText = (InstantText) mViewIdsAndMetaCache.valueAt(i).annotation;
+            int datePatternRes = instantText.datePatternResId();
+            if (datePatternRes != 0) {
+                mStringResources.put(datePatternRes, context.getString(datePatternRes));
+            }
+            int formatStringRes = instantText.formatStringResId();
+            if (formatStringRes != 0) {
+                mStringResources.put(formatStringRes, context.getString(formatStringRes));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadGeneratedBinder() {
+        String binderClassName = mDataType.getName() + BINDER_SUFFIX;
+        try {
+            Class<?> binderClass = Class.forName(binderClassName, true,
+                    mDataType.getClassLoader());
+            mBinder = (InstantBinder<Object>) binderClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            // No generated binder, we fall back to reflection
+        } catch (InstantiationException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        } catch (IllegalAccessException e) {
+            Log.w(LOG_TAG, "Unable to access " + binderClassName, e);
+        } catch (NoSuchMethodException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        } catch (InvocationTargetException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        }
+
+        if (DEBUG && mBinder != null) {
+            Log.d(LOG_TAG, "Using generated binder " + binderClassName);
+        }
+    }
+
+    private void createAccessors() {
+        String[] methodNames = mBinder != null ? mBinder.getMethodNames() : null;
+        int size = mViewIdsAndMetaCache.size();
+        for (int i = 0; i < size; i++) {
+            Meta meta = mViewIdsAndMetaCache.valueAt(i);
+            meta.accessor = createAccessor(meta.method, methodNames);
+        }
+        if (mIdMeta != null) {
+            mIdMeta.accessor = createAccessor(mIdMeta.method, methodNames);
+        }
+    }
+
+    private void createSlots() {
+        int size = mViewIdsAndMetaCache.size();
+        mSlotViewIds = new int[size];
+        mSlotMetas = new Meta[size];
+        for (int i = 0; i < size; i++) {
+            mSlotViewIds[i] = mViewIdsAndMetaCache.keyAt(i);
+            mSlotMetas[i] = mViewIdsAndMetaCache.valueAt(i);
+        }
+    }
+
+    private Accessor createAccessor(final Method method, final String[] methodNames) {
+        int binderIndex = -1;
+        if (methodNames != null) {
+            String methodName = method.getName();
+            for (int i = 0; i < methodNames.length; i++) {
+                if (methodName.equals(methodNames[i])) {
+                    binderIndex = i;
+                    break;
+                }
+            }
+        }
+        return Accessor.create(method, mBinder, binderIndex);
+    }
+
+    private boolean isInstantAnnotation(final Annotation annotation) {
+        return annotation.annotationType().equals(InstantText.class);
+    }
+
+    private void assertMethodIsPublic(final Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            throw new IllegalStateException(String.format("%s.%s() should be public",
+                            mDataType.getSimpleName(), method.getName()));
+        }
+    }
+
+    private void assertNoParamsOrSingleContextParam(final Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        final int nParameters = parameters.length;
+        if (nParameters > 0) {
+            String errorMessage = String.format("%s.%s() can have a single Context " +
+                    "parameter or should have no parameters.",
+                        mDataType.getSimpleName(), method.getName());
+            if (parameters.length == 1) {
+                Class<?> parameterType = parameters[0];
+                if (!parameterType.isAssignableFrom(Context.class)) {
+                    throw new IllegalStateException(errorMessage);
+                }
+            } else if (parameters.length > 1) {
+                throw new IllegalStateException(errorMessage);
+            }
+        }
+    }
+
+    private void assertIdReturnType(final Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (!returnType.equals(Long.TYPE) && !returnType.equals(Integer.TYPE)
+                && !returnType.equals(Short.TYPE) && !returnType.equals(Byte.TYPE)
+                && !Number.class.isAssignableFrom(returnType)) {
+            throw new IllegalStateException(String.format("%s.%s() should return a long, an " +
+                    "int or a Number", mDataType.getSimpleName(), method.getName()));
+        }
+    }
+
+    private void assertNonVoidReturnType(final Method method) {
+        if (method.getReturnType().equals(Void.TYPE)) {
+            throw new UnsupportedOperationException(
+                    String.format("Methods with void return types cannot be annotated, " +
+                            "check %s.%s()", mDataType.getSimpleName(), method.getName()));
+        }
+    }
+
+}
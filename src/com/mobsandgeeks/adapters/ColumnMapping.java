@@ -0,0 +1,349 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps {@link InstantColumn} annotated fields of a model to {@link Cursor} columns. The model
+ * hierarchy is scanned once per process, generated {@link InstantColumnBinder}s are preferred
+ * and reflection is used as a fallback. Column indices are not part of the mapping, they are
+ * resolved by {@link #resolveColumnIndices(Cursor)} once per {@link Cursor}.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class ColumnMapping {
+
+    // Debug
+    private static final String LOG_TAG = ColumnMapping.class.getSimpleName();
+    private static final boolean DEBUG = InstantAdapterCore.DEBUG;
+
+    // Constants
+    private static final String BINDER_SUFFIX = "$$InstantColumns";
+
+    private static final int TYPE_STRING = 0;
+    private static final int TYPE_BLOB = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_LONG = 3;
+    private static final int TYPE_SHORT = 4;
+    private static final int TYPE_FLOAT = 5;
+    private static final int TYPE_DOUBLE = 6;
+    private static final int TYPE_BOOLEAN = 7;
+    private static final int TYPE_INTEGER_OBJECT = 8;
+    private static final int TYPE_LONG_OBJECT = 9;
+    private static final int TYPE_SHORT_OBJECT = 10;
+    private static final int TYPE_FLOAT_OBJECT = 11;
+    private static final int TYPE_DOUBLE_OBJECT = 12;
+    private static final int TYPE_BOOLEAN_OBJECT = 13;
+
+    private static final Map<Class<?>, ColumnMapping> sColumnMappings =
+            new HashMap<Class<?>, ColumnMapping>();
+
+    // Attributes
+    private final Class<?> mDataType;
+    private String[] mColumnNames;
+    private Field[] mFields;
+    private int[] mFieldTypes;
+    private InstantColumnBinder<Object> mBinder;
+
+    private ColumnMapping(final Class<?> dataType) {
+        mDataType = dataType;
+
+        // Setup
+        findAnnotatedFields();
+        loadGeneratedBinder();
+    }
+
+    /**
+     * Returns the {@link ColumnMapping} for the given data type, scanning it if necessary. This
+     * method is thread-safe.
+     *
+     * @param dataType The model class.
+     *
+     * @return The shared {@link ColumnMapping}.
+     */
+    static ColumnMapping obtain(final Class<?> dataType) {
+        synchronized (sColumnMappings) {
+            ColumnMapping columnMapping = sColumnMappings.get(dataType);
+            if (columnMapping == null) {
+                columnMapping = new ColumnMapping(dataType);
+                sColumnMappings.put(dataType, columnMapping);
+            }
+            return columnMapping;
+        }
+    }
+
+    /**
+     * Checks if the model has any {@link InstantColumn} annotated fields.
+     */
+    boolean hasColumns() {
+        return mColumnNames.length > 0;
+    }
+
+    /**
+     * Resolves the indices of the mapped columns in the given {@link Cursor}.
+     *
+     * @param cursor The {@link Cursor} whose columns have to be resolved.
+     *
+     * @return Column indices, in the order expected by {@link #fill(Object, Cursor, int[])}.
+     *
+     * @throws IllegalStateException If the {@link Cursor} does not have a mapped column.
+     */
+    int[] resolveColumnIndices(final Cursor cursor) {
+        int nColumns = mColumnNames.length;
+        int[] columnIndices = new int[nColumns];
+        for (int i = 0; i < nColumns; i++) {
+            int columnIndex = cursor.getColumnIndex(mColumnNames[i]);
+            if (columnIndex == -1) {
+                throw new IllegalStateException(String.format("Cannot find column '%s', check " +
+                        "the @InstantColumn annotations in %s", mColumnNames[i],
+                            mDataType.getName()));
+            }
+            columnIndices[i] = columnIndex;
+        }
+        return columnIndices;
+    }
+
+    /**
+     * Creates a new instance of the model.
+     */
+    Object newInstance() {
+        if (mBinder != null) {
+            return mBinder.newInstance();
+        }
+
+        try {
+            Constructor<?> constructor = mDataType.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(mDataType.getName() + " should have a no-args " +
+                    "constructor.", e);
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Unable to instantiate " + mDataType.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to instantiate " + mDataType.getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Unable to instantiate " + mDataType.getName(), e);
+        }
+    }
+
+    /**
+     * Fills the annotated fields of an instance from the cursor's current row.
+     *
+     * @param instance The instance to fill.
+     * @param cursor The {@link Cursor}, positioned at the row to read.
+     * @param columnIndices Column indices from {@link #resolveColumnIndices(Cursor)}.
+     */
+    void fill(final Object instance, final Cursor cursor, final int[] columnIndices) {
+        if (mBinder != null) {
+            mBinder.fill(instance, cursor, columnIndices);
+            return;
+        }
+
+        try {
+            int nColumns = columnIndices.length;
+            for (int i = 0; i < nColumns; i++) {
+                readColumn(instance, mFields[i], mFieldTypes[i], cursor, columnIndices[i]);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to fill " + mDataType.getName(), e);
+        }
+    }
+
+    private static void readColumn(final Object instance, final Field field, final int type,
+            final Cursor cursor, final int columnIndex) throws IllegalAccessException {
+        switch (type) {
+            case TYPE_STRING:
+                field.set(instance, cursor.getString(columnIndex));
+                break;
+            case TYPE_BLOB:
+                field.set(instance, cursor.getBlob(columnIndex));
+                break;
+            case TYPE_INT:
+                field.setInt(instance, cursor.getInt(columnIndex));
+                break;
+            case TYPE_LONG:
+                field.setLong(instance, cursor.getLong(columnIndex));
+                break;
+            case TYPE_SHORT:
+                field.setShort(instance, cursor.getShort(columnIndex));
+                break;
+            case TYPE_FLOAT:
+                field.setFloat(instance, cursor.getFloat(columnIndex));
+                break;
+            case TYPE_DOUBLE:
+                field.setDouble(instance, cursor.getDouble(columnIndex));
+                break;
+            case TYPE_BOOLEAN:
+                field.setBoolean(instance, cursor.getInt(columnIndex) != 0);
+                break;
+            case TYPE_INTEGER_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Integer.valueOf(cursor.getInt(columnIndex)));
+                break;
+            case TYPE_LONG_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Long.valueOf(cursor.getLong(columnIndex)));
+                break;
+            case TYPE_SHORT_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Short.valueOf(cursor.getShort(columnIndex)));
+                break;
+            case TYPE_FLOAT_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Float.valueOf(cursor.getFloat(columnIndex)));
+                break;
+            case TYPE_DOUBLE_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Double.valueOf(cursor.getDouble(columnIndex)));
+                break;
+            case TYPE_BOOLEAN_OBJECT:
+                field.set(instance, cursor.isNull(columnIndex) ?
+                        null : Boolean.valueOf(cursor.getInt(columnIndex) != 0));
+                break;
+            default:
+                throw new IllegalStateException("Unknown field type " + type);
+        }
+    }
+
+    private void findAnnotatedFields() {
+        List<String> columnNames = new ArrayList<String>();
+        List<Field> fields = new ArrayList<Field>();
+
+        Class<?> clazz = mDataType;
+        do {
+            for (Field field : clazz.getDeclaredFields()) {
+                InstantColumn instantColumn = field.getAnnotation(InstantColumn.class);
+                if (instantColumn != null) {
+                    assertFieldIsWritable(field);
+                    field.setAccessible(true);
+                    columnNames.add(instantColumn.name());
+                    fields.add(field);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        } while (clazz != null && !clazz.equals(Object.class));
+
+        int nFields = fields.size();
+        mColumnNames = columnNames.toArray(new String[nFields]);
+        mFields = fields.toArray(new Field[nFields]);
+        mFieldTypes = new int[nFields];
+        for (int i = 0; i < nFields; i++) {
+            mFieldTypes[i] = getFieldType(mFields[i]);
+        }
+
+        if (DEBUG) {
+            Log.d(LOG_TAG, String.format("Found %d column(s) in %s", nFields,
+                    mDataType.getName()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadGeneratedBinder() {
+        if (mColumnNames.length == 0) {
+            return;
+        }
+
+        String binderClassName = mDataType.getName() + BINDER_SUFFIX;
+        try {
+            Class<?> binderClass = Class.forName(binderClassName, true,
+                    mDataType.getClassLoader());
+            InstantColumnBinder<Object> binder = (InstantColumnBinder<Object>)
+                    binderClass.getDeclaredConstructor().newInstance();
+
+            // The binder may list the columns in a different order
+            String[] binderColumnNames = binder.getColumnNames();
+            String[] sortedBinderColumnNames = binderColumnNames.clone();
+            String[] sortedColumnNames = mColumnNames.clone();
+            Arrays.sort(sortedBinderColumnNames);
+            Arrays.sort(sortedColumnNames);
+            if (Arrays.equals(sortedBinderColumnNames, sortedColumnNames)) {
+                mBinder = binder;
+                mColumnNames = binderColumnNames;
+            }
+        } catch (ClassNotFoundException e) {
+            // No generated binder, we fall back to reflection
+        } catch (InstantiationException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        } catch (IllegalAccessException e) {
+            Log.w(LOG_TAG, "Unable to access " + binderClassName, e);
+        } catch (NoSuchMethodException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        } catch (InvocationTargetException e) {
+            Log.w(LOG_TAG, "Unable to instantiate " + binderClassName, e);
+        }
+
+        if (DEBUG && mBinder != null) {
+            Log.d(LOG_TAG, "Using generated column binder " + binderClassName);
+        }
+    }
+
+    private void assertFieldIsWritable(final Field field) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            throw new IllegalStateException(String.format("%s.%s should not be static or final",
+                    mDataType.getSimpleName(), field.getName()));
+        }
+    }
+
+    private int getFieldType(final Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return TYPE_STRING;
+        } else if (type == byte[].class) {
+            return TYPE_BLOB;
+        } else if (type == Integer.TYPE) {
+            return TYPE_INT;
+        } else if (type == Long.TYPE) {
+            return TYPE_LONG;
+        } else if (type == Short.TYPE) {
+            return TYPE_SHORT;
+        } else if (type == Float.TYPE) {
+            return TYPE_FLOAT;
+        } else if (type == Double.TYPE) {
+            return TYPE_DOUBLE;
+        } else if (type == Boolean.TYPE) {
+            return TYPE_BOOLEAN;
+        } else if (type == Integer.class) {
+            return TYPE_INTEGER_OBJECT;
+        } else if (type == Long.class) {
+            return TYPE_LONG_OBJECT;
+        } else if (type == Short.class) {
+            return TYPE_SHORT_OBJECT;
+        } else if (type == Float.class) {
+            return TYPE_FLOAT_OBJECT;
+        } else if (type == Double.class) {
+            return TYPE_DOUBLE_OBJECT;
+        } else if (type == Boolean.class) {
+            return TYPE_BOOLEAN_OBJECT;
+        }
+
+        throw new IllegalStateException(String.format("%s.%s has an unsupported type %s",
+                mDataType.getSimpleName(), field.getName(), type.getName()));
+    }
+
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * An immutable, thread-safe date pattern that has been parsed once. Values are formatted by
+ * appending calendar fields into a caller-supplied {@link StringBuilder}, so unlike
+ * {@link SimpleDateFormat#format(Object)} nothing is allocated per value. Accepts
+ * {@link Date}s, epoch milliseconds as a {@link Number} and {@link Calendar}s, which are
+ * formatted in their own time zone.
+ * <p>
+ * Patterns using letters other than {@code y M d E a H k K h m s S}, patterns whose only field is
+ * a month name (which take the standalone form of the name), and locales that do not use ASCII
+ * digits or a plain {@link GregorianCalendar} are formatted by a per-thread
+ * {@link SimpleDateFormat}.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class CompiledDatePattern {
+
+    // Constants
+    private static final char LITERAL = 0;
+    private static final String SUPPORTED_LETTERS = "yMdEaHkKhmsS";
+
+    private static final ThreadLocal<StringBuilder> sStringBuilder =
+            new ThreadLocal<StringBuilder>() {
+
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
+    // Attributes
+    private final String mPattern;
+    private final Locale mLocale;
+    private final TimeZone mTimeZone;
+    private final Field[] mFields;
+    private final String[] mMonths;
+    private final String[] mShortMonths;
+    private final String[] mWeekdays;
+    private final String[] mShortWeekdays;
+    private final String[] mAmPmStrings;
+
+    // Per-thread state, Calendar and SimpleDateFormat are not thread-safe
+    private final ThreadLocal<Calendar> mCalendar;
+    private final ThreadLocal<SimpleDateFormat> mFallbackFormat;
+
+    private CompiledDatePattern(final String pattern, final Locale locale,
+            final TimeZone timeZone, final Field[] fields) {
+        mPattern = pattern;
+        mLocale = locale;
+        mTimeZone = timeZone;
+        mFields = fields;
+
+        DateFormatSymbols symbols = new DateFormatSymbols(locale);
+        mMonths = symbols.getMonths();
+        mShortMonths = symbols.getShortMonths();
+        mWeekdays = symbols.getWeekdays();
+        mShortWeekdays = symbols.getShortWeekdays();
+        mAmPmStrings = symbols.getAmPmStrings();
+
+        mCalendar = new ThreadLocal<Calendar>() {
+
+            @Override
+            protected Calendar initialValue() {
+                return new GregorianCalendar(mTimeZone, mLocale);
+            }
+        };
+        mFallbackFormat = new ThreadLocal<SimpleDateFormat>() {
+
+            @Override
+            protected SimpleDateFormat initialValue() {
+                SimpleDateFormat simpleDateFormat = new SimpleDateFormat(mPattern, mLocale);
+                simpleDateFormat.setTimeZone(mTimeZone);
+                return simpleDateFormat;
+            }
+        };
+    }
+
+    /**
+     * Parses a date pattern.
+     *
+     * @param pattern The pattern, as accepted by {@link SimpleDateFormat}.
+     * @param locale The {@link Locale} used to format the values.
+     * @param timeZone The {@link TimeZone} {@link Date}s and epoch milliseconds are formatted in.
+     *
+     * @return The compiled pattern.
+     *
+     * @throws IllegalArgumentException If the pattern is invalid.
+     */
+    static CompiledDatePattern compile(final String pattern, final Locale locale,
+            final TimeZone timeZone) {
+        // Fail early for invalid patterns, just like SimpleDateFormat does
+        new SimpleDateFormat(pattern, locale);
+
+        Field[] fields = null;
+        if (new DecimalFormatSymbols(locale).getZeroDigit() == '0'
+                // Subclasses such as BuddhistCalendar number their years differently
+                && Calendar.getInstance(locale).getClass() == GregorianCalendar.class) {
+            fields = parse(pattern);
+        }
+        return new CompiledDatePattern(pattern, locale, timeZone, fields);
+    }
+
+    /**
+     * Formats a value.
+     *
+     * @param value A {@link Date}, a {@link Number} with epoch milliseconds or a
+     *          {@link Calendar}.
+     *
+     * @return The formatted text.
+     */
+    String format(final Object value) {
+        StringBuilder builder = sStringBuilder.get();
+        builder.setLength(0);
+        appendTo(builder, value);
+        return builder.toString();
+    }
+
+    /**
+     * Formats a value into the given {@link StringBuilder}.
+     *
+     * @param builder The {@link StringBuilder} to append to.
+     * @param value A {@link Date}, a {@link Number} with epoch milliseconds or a
+     *          {@link Calendar}.
+     *
+     * @throws IllegalArgumentException If the value cannot be formatted as a date.
+     */
+    void appendTo(final StringBuilder builder, final Object value) {
+        Calendar calendar;
+        if (value instanceof Calendar) {
+            calendar = (Calendar) value;
+        } else if (value instanceof Date) {
+            calendar = mCalendar.get();
+            calendar.setTimeInMillis(((Date) value).getTime());
+        } else if (value instanceof Number) {
+            calendar = mCalendar.get();
+            calendar.setTimeInMillis(((Number) value).longValue());
+        } else {
+            throw new IllegalArgumentException("Cannot format given Object as a Date");
+        }
+
+        if (mFields == null || !(calendar instanceof GregorianCalendar)) {
+            SimpleDateFormat simpleDateFormat = mFallbackFormat.get();
+            if (value instanceof Calendar) {
+                simpleDateFormat = (SimpleDateFormat) simpleDateFormat.clone();
+                simpleDateFormat.setTimeZone(calendar.getTimeZone());
+            }
+            builder.append(simpleDateFormat.format(calendar.getTime()));
+            return;
+        }
+
+        for (Field field : mFields) {
+            appendField(builder, calendar, field);
+        }
+    }
+
+    private void appendField(final StringBuilder builder, final Calendar calendar,
+            final Field field) {
+        int count = field.count;
+        switch (field.letter) {
+            case LITERAL:
+                builder.append(field.literal);
+                break;
+
+            case 'y':
+                int year = calendar.get(Calendar.YEAR);
+                if (count == 2) {
+                    appendNumber(builder, year % 100, 2);
+                } else {
+                    appendNumber(builder, year, count);
+                }
+                break;
+
+            case 'M':
+                int month = calendar.get(Calendar.MONTH);
+                if (count >= 4) {
+                    builder.append(mMonths[month]);
+                } else if (count == 3) {
+                    builder.append(mShortMonths[month]);
+                } else {
+                    appendNumber(builder, month + 1, count);
+                }
+                break;
+
+            case 'd':
+                appendNumber(builder, calendar.get(Calendar.DAY_OF_MONTH), count);
+                break;
+
+            case 'E':
+                int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+                builder.append(count >= 4 ? mWeekdays[dayOfWeek] : mShortWeekdays[dayOfWeek]);
+                break;
+
+            case 'a':
+                builder.append(mAmPmStrings[calendar.get(Calendar.AM_PM)]);
+                break;
+
+            case 'H':
+                appendNumber(builder, calendar.get(Calendar.HOUR_OF_DAY), count);
+                break;
+
+            case 'k':
+                int hourOfDay = calendar.get(Calendar.HOUR_OF_DAY);
+                appendNumber(builder, hourOfDay == 0 ? 24 : hourOfDay, count);
+                break;
+
+            case 'K':
+                appendNumber(builder, calendar.get(Calendar.HOUR), count);
+                break;
+
+            case 'h':
+                int hour = calendar.get(Calendar.HOUR);
+                appendNumber(builder, hour == 0 ? 12 : hour, count);
+                break;
+
+            case 'm':
+                appendNumber(builder, calendar.get(Calendar.MINUTE), count);
+                break;
+
+            case 's':
+                appendNumber(builder, calendar.get(Calendar.SECOND), count);
+                break;
+
+            case 'S':
+                appendNumber(builder, calendar.get(Calendar.MILLISECOND), count);
+                break;
+
+            default:
+                throw new IllegalStateException("Unexpected pattern letter " + field.letter);
+        }
+    }
+
+    private static void appendNumber(final StringBuilder builder, final int value,
+            final int minimumDigits) {
+        int nDigits = 1;
+        for (int i = value; i >= 10; i /= 10) {
+            nDigits++;
+        }
+        for (int i = nDigits; i < minimumDigits; i++) {
+            builder.append('0');
+        }
+        builder.append(value);
+    }
+
+    /**
+     * {@link SimpleDateFormat} prints a month name on its own, e.g. {@code "MMMM"}, in the
+     * standalone (nominative) form. Only the format (genitive) names are available through
+     * {@link DateFormatSymbols}, they differ in languages such as Polish and Russian.
+     */
+    private static boolean isStandaloneMonth(final List<Field> fields) {
+        Field monthField = null;
+        for (Field field : fields) {
+            if (field.letter != LITERAL) {
+                if (monthField != null) {
+                    return false;
+                }
+                monthField = field;
+            }
+        }
+        return monthField != null && monthField.letter == 'M' && monthField.count >= 3;
+    }
+
+    private static Field[] parse(final String pattern) {
+        List<Field> fields = new ArrayList<Field>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i += 2;
+                    continue;
+                }
+
+                // Quoted text, '' within quotes is a single quote
+                i++;
+                while (i < length) {
+                    c = pattern.charAt(i);
+                    if (c == '\'') {
+                        if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                            literal.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(c);
+                    i++;
+                }
+                i++;
+                continue;
+            } else if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                literal.append(c);
+                i++;
+                continue;
+            } else if (SUPPORTED_LETTERS.indexOf(c) == -1) {
+                return null;
+            }
+
+            int start = i;
+            while (i < length && pattern.charAt(i) == c) {
+                i++;
+            }
+            int count = i - start;
+            if ((c == 'M' || c == 'E') && count > 4) {
+                // Narrow names differ between platforms
+                return null;
+            }
+
+            if (literal.length() > 0) {
+                fields.add(new Field(LITERAL, 0, literal.toString()));
+                literal.setLength(0);
+            }
+            fields.add(new Field(c, count, null));
+        }
+
+        if (literal.length() > 0) {
+            fields.add(new Field(LITERAL, 0, literal.toString()));
+        }
+        if (isStandaloneMonth(fields)) {
+            return null;
+        }
+        return fields.toArray(new Field[fields.size()]);
+    }
+
+    /**
+     * A run of a pattern letter or a piece of literal text.
+     */
+    private static class Field {
+        final char letter;
+        final int count;
+        final String literal;
+
+        Field(final char letter, final int count, final String literal) {
+            this.letter = letter;
+            this.count = count;
+            this.literal = literal;
+        }
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A format string that has been parsed once, so that it can be applied to a value without
+ * going through {@link String#format(String, Object...)} on every bind. Format strings made of
+ * literal text and a single {@code %s}, {@code %d} or {@code %.Nf} specifier (plus {@code %%}
+ * and {@code %n}) are applied by appending into a per-thread {@link StringBuilder}. Anything
+ * else, including values that the fast path cannot reproduce exactly, is handed over to a
+ * {@link Formatter}, so the output is always the same as {@link String#format(Locale, String,
+ * Object...)}.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class CompiledFormat {
+
+    // Constants
+    private static final int MAX_FRACTION_DIGITS = 15;
+
+    private static final ThreadLocal<StringBuilder> sStringBuilder =
+            new ThreadLocal<StringBuilder>() {
+
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
+    // Scratch space for the digits of %.Nf values
+    private static final ThreadLocal<StringBuilder> sDigits = new ThreadLocal<StringBuilder>() {
+
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
+    // Attributes
+    private final String mFormatString;
+    private final Locale mLocale;
+    private final Segment[] mSegments;
+    private final char mDecimalSeparator;
+
+    private CompiledFormat(final String formatString, final Locale locale,
+            final Segment[] segments, final char decimalSeparator) {
+        mFormatString = formatString;
+        mLocale = locale;
+        mSegments = segments;
+        mDecimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * Parses a format string.
+     *
+     * @param formatString The format string, as accepted by {@link Formatter}.
+     * @param locale The {@link Locale} used to format the values.
+     *
+     * @return The compiled format.
+     */
+    static CompiledFormat compile(final String formatString, final Locale locale) {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+        Segment[] segments = symbols.getZeroDigit() == '0' ? parse(formatString) : null;
+        return new CompiledFormat(formatString, locale, segments, symbols.getDecimalSeparator());
+    }
+
+    /**
+     * Formats a value.
+     *
+     * @param argument The value for the format specifier.
+     *
+     * @return The formatted text.
+     */
+    String format(final Object argument) {
+        StringBuilder builder = sStringBuilder.get();
+        builder.setLength(0);
+
+        if (mSegments == null || !append(builder, argument)) {
+            builder.setLength(0);
+            new Formatter(builder, mLocale).format(mFormatString, argument);
+        }
+
+        return builder.toString();
+    }
+
+    private boolean append(final StringBuilder builder, final Object argument) {
+        for (Segment segment : mSegments) {
+            switch (segment.type) {
+                case Segment.LITERAL:
+                    builder.append(segment.literal);
+                    break;
+
+                case Segment.STRING:
+                    if (argument instanceof Formattable) {
+                        return false;
+                    }
+                    builder.append(String.valueOf(argument));
+                    break;
+
+                case Segment.INTEGER:
+                    if (argument instanceof Integer || argument instanceof Long
+                            || argument instanceof Short || argument instanceof Byte) {
+                        builder.append(((Number) argument).longValue());
+                    } else if (argument == null) {
+                        builder.append("null");
+                    } else {
+                        return false;
+                    }
+                    break;
+
+                case Segment.FIXED:
+                    if (argument instanceof Double || argument instanceof Float) {
+                        // Formatter widens floats as well
+                        if (!appendFixed(builder, ((Number) argument).doubleValue(),
+                                segment)) {
+                            return false;
+                        }
+                    } else {
+                        // Including null, which Formatter truncates to the precision
+                        return false;
+                    }
+                    break;
+
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rounds a value half-up to the given number of fraction digits, which is what
+     * {@link Formatter} does for {@code %.Nf}. The shortest decimal representation of the value
+     * is rounded, it is on the same side of the rounding midpoint as the digits Formatter works
+     * with unless the discarded digits are exactly a half. Such ties are left to Formatter.
+     */
+    private boolean appendFixed(final StringBuilder builder, final double value,
+            final Segment segment) {
+        double absValue = Math.abs(value);
+        if (Math.ulp(absValue) * 2 >= segment.resolution) {
+            // Too large for the requested precision, NaN and Infinity
+            return false;
+        }
+
+        // The shortest decimal representation, with a leading zero to absorb a carry
+        StringBuilder digits = sDigits.get();
+        digits.setLength(0);
+        digits.append('0').append(absValue);
+        int pointIndex = -1;
+        int length = digits.length();
+        for (int i = 1; i < length; i++) {
+            char c = digits.charAt(i);
+            if (c == 'E') {
+                // Values in scientific notation
+                return false;
+            } else if (c == '.') {
+                pointIndex = i;
+            }
+        }
+        if (pointIndex == -1) {
+            return false;
+        }
+        digits.deleteCharAt(pointIndex);
+
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        int precision = segment.precision;
+        int nDigits = digits.length() - 1;
+        int integerLength = pointIndex;
+        int fractionLength = digits.length() - integerLength;
+
+        int firstDiscarded = integerLength + precision;
+        if (fractionLength > precision && digits.charAt(firstDiscarded) == '5'
+                && firstDiscarded == nDigits) {
+            return false;
+        }
+
+        if (fractionLength > precision && digits.charAt(firstDiscarded) >= '5') {
+            // Propagate the carry, the leading zero absorbs an overflow such as 9.99 -> 10.0
+            int i = firstDiscarded - 1;
+            while (digits.charAt(i) == '9') {
+                digits.setCharAt(i--, '0');
+            }
+            digits.setCharAt(i, (char) (digits.charAt(i) + 1));
+        }
+
+        if (negative) {
+            builder.append('-');
+        }
+        int start = digits.charAt(0) == '0' ? 1 : 0;
+        builder.append(digits, start, integerLength);
+        if (precision > 0) {
+            builder.append(mDecimalSeparator);
+            int nFractionDigits = Math.min(fractionLength, precision);
+            builder.append(digits, integerLength, integerLength + nFractionDigits);
+            for (int i = nFractionDigits; i < precision; i++) {
+                builder.append('0');
+            }
+        }
+        return true;
+    }
+
+    private static Segment[] parse(final String formatString) {
+        List<Segment> segments = new ArrayList<Segment>();
+        StringBuilder literal = new StringBuilder();
+        int nArguments = 0;
+        int length = formatString.length();
+
+        int i = 0;
+        while (i < length) {
+            char c = formatString.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            } else if (i == length) {
+                return null;
+            }
+
+            c = formatString.charAt(i++);
+            if (c == '%') {
+                literal.append('%');
+                continue;
+            } else if (c == 'n') {
+                literal.append(System.getProperty("line.separator"));
+                continue;
+            }
+
+            Segment segment;
+            if (c == 's') {
+                segment = new Segment(Segment.STRING, null, 0);
+            } else if (c == 'd') {
+                segment = new Segment(Segment.INTEGER, null, 0);
+            } else if (c == '.') {
+                int precisionStart = i;
+                while (i < length && Character.isDigit(formatString.charAt(i))) {
+                    i++;
+                }
+                if (i == precisionStart || i == length || formatString.charAt(i) != 'f'
+                        || i - precisionStart > 2) {
+                    return null;
+                }
+                int precision = Integer.parseInt(formatString.substring(precisionStart, i));
+                if (precision > MAX_FRACTION_DIGITS) {
+                    return null;
+                }
+                i++;
+                segment = new Segment(Segment.FIXED, null, precision);
+            } else {
+                // Flags, widths, argument indices and other conversions
+                return null;
+            }
+
+            if (++nArguments > 1) {
+                // Let the Formatter report the missing argument
+                return null;
+            }
+            if (literal.length() > 0) {
+                segments.add(new Segment(Segment.LITERAL, literal.toString(), 0));
+                literal.setLength(0);
+            }
+            segments.add(segment);
+        }
+
+        if (literal.length() > 0) {
+            segments.add(new Segment(Segment.LITERAL, literal.toString(), 0));
+        }
+        return segments.toArray(new Segment[segments.size()]);
+    }
+
+    /**
+     * A piece of literal text or a format specifier.
+     */
+    private static class Segment {
+        static final int LITERAL = 0;
+        static final int STRING = 1;
+        static final int INTEGER = 2;
+        static final int FIXED = 3;
+
+        final int type;
+        final String literal;
+        final int precision;
+        final double resolution;
+
+        Segment(final int type, final String literal, final int precision) {
+            this.type = type;
+            this.literal = literal;
+            this.precision = precision;
+            this.resolution = Math.pow(10, -precision);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.util.List;
+
+/**
+ * Interface used by {@link InstantAdapter#submitList(List)} to find out how a new list differs
+ * from the current one. Both methods are called on a background thread, they should not touch
+ * the UI or modify the items.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ *
+ * @param <T> The model backed by the {@link InstantAdapter}.
+ */
+public interface DiffCallback<T> {
+
+    /**
+     * Returns an object that identifies the item, usually a database id. Items from the old and
+     * the new list that have equal ids are considered to be the same item. The returned object
+     * must implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     *
+     * @param item An item from either of the lists.
+     *
+     * @return The item's identity.
+     */
+    Object getId(T item);
+
+    /**
+     * Checks whether an item's visible content has changed. Only called for items whose ids
+     * are equal.
+     *
+     * @param oldItem The item from the current list.
+     * @param newItem The item from the submitted list.
+     *
+     * @return {@code true} if both items would be displayed the same way.
+     */
+    boolean areContentsTheSame(T oldItem, T newItem);
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.text.Html;
+import android.text.Spanned;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of {@link Html#fromHtml(String)} results for {@link InstantText}s with
+ * {@code isHtml} set, so that the same HTML is not parsed again every time a row scrolls into
+ * view. The least recently used entries are dropped first and parsed results are softly
+ * referenced, so the cache gives memory back under pressure. A cache can be shared between
+ * adapters.
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * HtmlCache htmlCache = new HtmlCache(200);
+ * bookAdapter.setHtmlCache(htmlCache);
+ * htmlCache.prefetch(descriptions);
+ * </pre>
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public final class HtmlCache {
+
+    // Attributes
+    private final int mMaxSize;
+    private final LinkedHashMap<String, SoftReference<Spanned>> mEntries;
+
+    // Metrics
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+    private long mPrefetchCount;
+
+    /**
+     * Constructs a new {@link HtmlCache}.
+     *
+     * @param maxSize Maximum number of parsed results to keep.
+     *
+     * @throws IllegalArgumentException If {@code maxSize} is less than 1.
+     */
+    public HtmlCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("'maxSize' should be greater than 0.");
+        }
+        mMaxSize = maxSize;
+        mEntries = new LinkedHashMap<String, SoftReference<Spanned>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, SoftReference<Spanned>> eldest) {
+                if (size() > mMaxSize) {
+                    mEvictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed HTML, parsing it if it isn't cached yet.
+     *
+     * @param source The HTML source.
+     *
+     * @return The result of {@link Html#fromHtml(String)}.
+     */
+    public Spanned fromHtml(final String source) {
+        if (source == null) {
+            return Html.fromHtml(source);
+        }
+
+        synchronized (this) {
+            Spanned spanned = get(source);
+            if (spanned != null) {
+                mHitCount++;
+                return spanned;
+            }
+            mMissCount++;
+        }
+
+        Spanned spanned = Html.fromHtml(source);
+        put(source, spanned);
+        return spanned;
+    }
+
+    /**
+     * Parses HTML sources on a background thread and caches the results, so that they are
+     * ready by the time they are bound. Sources that are already cached are skipped.
+     *
+     * @param sources The HTML sources.
+     */
+    public void prefetch(final Collection<String> sources) {
+        final List<String> snapshot = new ArrayList<String>(sources);
+
+        InstantExecutors.background().execute(new Runnable() {
+
+            @Override
+            public void run() {
+                for (String source : snapshot) {
+                    if (source == null || contains(source)) {
+                        continue;
+                    }
+                    put(source, Html.fromHtml(source));
+                    synchronized (HtmlCache.this) {
+                        mPrefetchCount++;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops all the cached results.
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    /**
+     * Returns the number of cached results, including those that may have been reclaimed by
+     * the garbage collector.
+     */
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Returns the number of times a parsed result was found in the cache.
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Returns the number of times HTML had to be parsed on the calling thread.
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Returns the number of results that were dropped to stay within the maximum size or were
+     * reclaimed by the garbage collector.
+     */
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Returns the number of sources parsed by {@link #prefetch(Collection)}.
+     */
+    public synchronized long getPrefetchCount() {
+        return mPrefetchCount;
+    }
+
+    /**
+     * Resets all the counters to zero.
+     */
+    public synchronized void resetCounts() {
+        mHitCount = 0;
+        mMissCount = 0;
+        mEvictionCount = 0;
+        mPrefetchCount = 0;
+    }
+
+    private synchronized Spanned get(final String source) {
+        SoftReference<Spanned> reference = mEntries.get(source);
+        if (reference == null) {
+            return null;
+        }
+
+        Spanned spanned = reference.get();
+        if (spanned == null) {
+            mEntries.remove(source);
+            mEvictionCount++;
+        }
+        return spanned;
+    }
+
+    private synchronized boolean contains(final String source) {
+        SoftReference<Spanned> reference = mEntries.get(source);
+        return reference != null && reference.get() != null;
+    }
+
+    private synchronized void put(final String source, final Spanned spanned) {
+        mEntries.put(source, new SoftReference<Spanned>(spanned));
+    }
+
+}
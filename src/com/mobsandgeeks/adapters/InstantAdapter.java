@@ -14,18 +14,38 @@
 
 package com.mobsandgeeks.adapters;
 
+import android.annotation.TargetApi;
 import android.content.Context;
+import android.os.Build;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Adapter;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
+import android.widget.TextView;
 
+import com.mobsandgeeks.adapters.InstantAdapterCore.PrecomputedRow;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Class that constructs a custom {@link Adapter} by mapping <b>Instant*</b> annotated
  * methods from you model to {@link View}s on your layout. Methods can be annotated using the
  * {@link InstantText} annotation.
+ * <p>
+ * Call {@link #setPrefetchDistance(int)} to compute the texts of the rows ahead of the scroll
+ * direction on a background thread, so that binding a row only has to set them.
+ * </p>
+ * <p>
+ * An adapter can display several models, each with its own layout, see
+ * {@link #InstantAdapter(Context, Map, List)}.
+ * </p>
  * 
  * @author Ragunath Jawahar <rj@mobsandgeeks.com>
  * 
@@ -34,7 +54,21 @@ import java.util.List;
 public class InstantAdapter<T> extends ArrayAdapter<T> {
 
     private Context mContext;
-    private InstantAdapterCore<T> mInstantAdapterCore;
+    private InstantAdapterCore<T>[] mInstantAdapterCores;
+    private Class<?>[] mDataTypes;
+    private Map<Class<?>, Integer> mViewTypes;
+    private DiffCallback<T> mDiffCallback;
+    private WeakReference<AdapterView<?>> mAdapterViewReference;
+    private boolean mNotifyOnChange = true;
+    private int mSubmitGeneration;
+    private Future<?> mDiffFuture;
+
+    // Prefetching, touched only on the main thread
+    private int mPrefetchDistance;
+    private SparseArray<PrecomputedRow> mPrecomputedRows;
+    private SparseArray<Boolean> mPendingPrecomputations;
+    private int mPrefetchGeneration;
+    private int mLastPosition;
 
     /**
      * Constructs a new {@link InstantAdapter} for your model.
@@ -48,8 +82,62 @@ public class InstantAdapter<T> extends ArrayAdapter<T> {
             final Class<?> dataType, final List<T> list) {
         super(context, layoutResourceId, list);
         mContext = context;
-        mInstantAdapterCore = new InstantAdapterCore<T>(context, this, layoutResourceId,
-                dataType);
+        setup(context, new Class<?>[] { dataType }, new int[] { layoutResourceId });
+    }
+
+    /**
+     * Constructs a new {@link InstantAdapter} that displays several models, each with its own
+     * layout. Items are displayed using the layout of their class or of their closest
+     * superclass (or interface) in the map. Rows are recycled separately for each layout.
+     *
+     * @param context The {@link Context} to use.
+     * @param layouts The resource ids of your XML layouts, keyed by the data types backed by
+     *          your adapter. Use a {@link java.util.LinkedHashMap} if the order of the view
+     *          types matters to you.
+     * @param list The {@link List} of instances backed by your adapter.
+     *
+     * @throws IllegalArgumentException If {@code layouts} is {@code null} or empty.
+     */
+    public InstantAdapter(final Context context, final Map<Class<?>, Integer> layouts,
+            final List<T> list) {
+        super(context, firstLayout(layouts), list);
+        mContext = context;
+
+        int nViewTypes = layouts.size();
+        Class<?>[] dataTypes = new Class<?>[nViewTypes];
+        int[] layoutResourceIds = new int[nViewTypes];
+        int i = 0;
+        for (Map.Entry<Class<?>, Integer> entry : layouts.entrySet()) {
+            dataTypes[i] = entry.getKey();
+            layoutResourceIds[i] = entry.getValue();
+            i++;
+        }
+        setup(context, dataTypes, layoutResourceIds);
+    }
+
+    private void setup(final Context context, final Class<?>[] dataTypes,
+            final int[] layoutResourceIds) {
+        int nViewTypes = dataTypes.length;
+        mDataTypes = dataTypes;
+        mViewTypes = new HashMap<Class<?>, Integer>();
+        @SuppressWarnings("unchecked")
+        InstantAdapterCore<T>[] instantAdapterCores =
+                (InstantAdapterCore<T>[]) new InstantAdapterCore<?>[nViewTypes];
+        mInstantAdapterCores = instantAdapterCores;
+        for (int i = 0; i < nViewTypes; i++) {
+            mInstantAdapterCores[i] = new InstantAdapterCore<T>(context, this,
+                    layoutResourceIds[i], dataTypes[i]);
+
+            // Handlers set on the adapter may target Views that only some layouts have
+            mInstantAdapterCores[i].setSkipMissingHandlerViews(nViewTypes > 1);
+        }
+    }
+
+    private static int firstLayout(final Map<Class<?>, Integer> layouts) {
+        if (layouts == null || layouts.isEmpty()) {
+            throw new IllegalArgumentException("'layouts' cannot be null or empty.");
+        }
+        return layouts.values().iterator().next();
     }
 
     /**
@@ -64,26 +152,575 @@ public class InstantAdapter<T> extends ArrayAdapter<T> {
      */
     @Override
     public View getView(final int position, final View convertView, final ViewGroup parent) {
-        View view = convertView;
+        T instance = getItem(position);
+        InstantAdapterCore<T> instantAdapterCore = getInstantAdapterCore(instance);
+        BindingMonitor bindingMonitor = instantAdapterCore.getBindingMonitor();
+        if (bindingMonitor == null) {
+            return getBoundView(instantAdapterCore, instance, position, convertView, parent);
+        }
+
+        Class<?> dataType = instantAdapterCore.getDataType();
+        bindingMonitor.onBindStarted(dataType, position);
+        long start = System.nanoTime();
+        View view = getBoundView(instantAdapterCore, instance, position, convertView, parent);
+        bindingMonitor.onBindFinished(dataType, position, System.nanoTime() - start);
+        return view;
+    }
 
+    private View getBoundView(final InstantAdapterCore<T> instantAdapterCore, final T instance,
+            final int position, final View convertView, final ViewGroup parent) {
+        View view = convertView;
         if (view == null) {
-            view = mInstantAdapterCore.createNewView(mContext, parent);
+            view = instantAdapterCore.createNewView(mContext, parent);
+        }
+        if (parent instanceof AdapterView && (mAdapterViewReference == null
+                || mAdapterViewReference.get() != parent)) {
+            mAdapterViewReference = new WeakReference<AdapterView<?>>((AdapterView<?>) parent);
         }
 
-        T instance = getItem(position);
-        mInstantAdapterCore.bindToView(parent, view, instance, position);
+        PrecomputedRow precomputedRow = mPrefetchDistance > 0 ?
+                mPrecomputedRows.get(position) : null;
+        if (precomputedRow != null) {
+            instantAdapterCore.bindPrecomputedToView(parent, view, instance, position,
+                    precomputedRow);
+        } else {
+            instantAdapterCore.bindToView(parent, view, instance, position);
+        }
+
+        if (mPrefetchDistance > 0) {
+            prefetch(position);
+        }
 
         return view;
     }
 
     /**
-     * Sets a {@link ViewHandler} for a View with the given id.
+     * {@inheritDoc}
+     * <p>
+     * Ids are stable if the models have an {@link InstantId} annotated method. Adapters with
+     * more than one view type never have stable ids, since ids of different model classes can
+     * collide.
+     * </p>
+     */
+    @Override
+    public boolean hasStableIds() {
+        if (mInstantAdapterCores.length > 1) {
+            return false;
+        }
+
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            if (!instantAdapterCore.hasItemIds()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns the value of the model's {@link InstantId} annotated method, or the position if
+     * it does not have one.
+     * </p>
+     */
+    @Override
+    public long getItemId(final int position) {
+        T instance = getItem(position);
+        InstantAdapterCore<T> instantAdapterCore = getInstantAdapterCore(instance);
+        return instantAdapterCore.hasItemIds() ?
+                instantAdapterCore.getItemId(instance) : super.getItemId(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getViewTypeCount() {
+        return mInstantAdapterCores.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getItemViewType(final int position) {
+        return mInstantAdapterCores.length == 1 ? 0 : getViewType(getItem(position));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setNotifyOnChange(final boolean notifyOnChange) {
+        super.setNotifyOnChange(notifyOnChange);
+        mNotifyOnChange = notifyOnChange;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyDataSetChanged() {
+        clearPrecomputedRows();
+        super.notifyDataSetChanged();
+        mNotifyOnChange = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyDataSetInvalidated() {
+        clearPrecomputedRows();
+        super.notifyDataSetInvalidated();
+    }
+
+    /**
+     * Sets the number of rows ahead of the scroll direction whose texts are computed in
+     * advance. Annotated methods of those rows are invoked, and their values formatted, on a
+     * background thread, so they must be safe to call from that thread and the items should not
+     * be modified without calling {@link #notifyDataSetChanged()} or
+     * {@link #notifyViewsChanged(AdapterView, int, int...)}. {@link ViewHandler}s are still
+     * invoked on the main thread. Disabled by default.
+     *
+     * @param prefetchDistance Number of rows to prepare in advance, 0 disables prefetching.
+     *
+     * @throws IllegalArgumentException If {@code prefetchDistance} is negative.
+     */
+    public void setPrefetchDistance(final int prefetchDistance) {
+        if (prefetchDistance < 0) {
+            throw new IllegalArgumentException("'prefetchDistance' cannot be negative.");
+        }
+        mPrefetchDistance = prefetchDistance;
+        if (mPrecomputedRows == null) {
+            mPrecomputedRows = new SparseArray<PrecomputedRow>();
+            mPendingPrecomputations = new SparseArray<Boolean>();
+        }
+        clearPrecomputedRows();
+    }
+
+    /**
+     * Gets the number of rows whose texts are computed in advance, see
+     * {@link #setPrefetchDistance(int)}.
+     *
+     * @return The prefetch distance, 0 if prefetching is disabled.
+     */
+    public int getPrefetchDistance() {
+        return mPrefetchDistance;
+    }
+
+    /**
+     * Sets the {@link DiffCallback} used by {@link #submitList(List)} to compare items. By
+     * default items are identified and compared using their {@link Object#equals(Object)}
+     * and {@link Object#hashCode()} methods.
+     *
+     * @param diffCallback The {@link DiffCallback} to use, {@code null} restores the default.
+     */
+    public void setDiffCallback(final DiffCallback<T> diffCallback) {
+        mDiffCallback = diffCallback;
+    }
+
+    /**
+     * Skips updating the annotated Views of a row when it is bound to a different instance with
+     * the same {@link InstantId} and the callback reports that their contents are the same,
+     * e.g. after {@link #notifyDataSetChanged()}. {@link ViewHandler}s are invoked either way.
+     * Off by default, only {@link DiffCallback#areContentsTheSame(Object, Object)} is called,
+     * on the main thread. Rows that {@link #submitList(List)} found to have changed are always
+     * updated.
+     *
+     * @param unchangedRowCallback The callback, {@code null} to always update the Views.
+     */
+    public void setUnchangedRowCallback(final DiffCallback<T> unchangedRowCallback) {
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.setUnchangedRowCallback(unchangedRowCallback);
+        }
+    }
+
+    /**
+     * Replaces the adapter's items with the items of the given list. The lists are compared on
+     * a background thread using the {@link DiffCallback}, the items are replaced on the main
+     * thread once the comparison is complete.
+     * <ul>
+     *   <li>If nothing changed, the items are replaced without notifying the
+     *   {@link AdapterView}, no rows are rebound.</li>
+     *   <li>If only the contents of some items changed, only the visible rows for those items
+     *   are rebound.</li>
+     *   <li>Otherwise the {@link AdapterView} is notified through
+     *   {@link #notifyDataSetChanged()}.</li>
+     * </ul>
+     * If this method is called again before a previous comparison completes, the previous
+     * comparison is cancelled and its list is discarded. This method must be called from the
+     * main thread and the list should not be modified after it has been submitted.
+     *
+     * @param list The new items.
+     */
+    public void submitList(final List<T> list) {
+        final int generation = ++mSubmitGeneration;
+        final DiffCallback<T> diffCallback = mDiffCallback != null ?
+                mDiffCallback : new EqualsDiffCallback<T>();
+        final List<T> newItems = list != null ? new ArrayList<T>(list) : new ArrayList<T>();
+        final List<T> oldItems = new ArrayList<T>(getCount());
+        int count = getCount();
+        for (int i = 0; i < count; i++) {
+            oldItems.add(getItem(i));
+        }
+
+        if (mDiffFuture != null) {
+            mDiffFuture.cancel(true);
+        }
+        mDiffFuture = InstantExecutors.diff().submit(new Runnable() {
+
+            @Override
+            public void run() {
+                final ListDiff listDiff = ListDiff.compute(oldItems, newItems, diffCallback);
+                if (listDiff == null) {
+                    // Cancelled by a newer list
+                    return;
+                }
+                InstantExecutors.mainThread().post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (generation == mSubmitGeneration) {
+                            mDiffFuture = null;
+                            applyList(newItems, listDiff);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void applyList(final List<T> items, final ListDiff listDiff) {
+        super.setNotifyOnChange(false);
+        clear();
+        addAllItems(items);
+        if (listDiff.isEmpty()) {
+            super.setNotifyOnChange(mNotifyOnChange);
+            return;
+        }
+
+        AdapterView<?> adapterView = mAdapterViewReference != null ?
+                mAdapterViewReference.get() : null;
+        if (listDiff.hasStructuralChanges() || adapterView == null
+                || adapterView.getAdapter() == null) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        super.setNotifyOnChange(mNotifyOnChange);
+        for (int position : listDiff.getChangedPositions()) {
+            if (mPrecomputedRows != null) {
+                mPrecomputedRows.remove(position);
+            }
+            T instance = items.get(position);
+            InstantAdapterCore<T> instantAdapterCore = getInstantAdapterCore(instance);
+            View view = instantAdapterCore.getVisibleView(adapterView, position);
+            if (view != null) {
+                instantAdapterCore.rebindToView(adapterView, view, instance, position);
+            }
+        }
+    }
+
+    /**
+     * Rebinds the Views with the given ids for an item that is currently visible. Use this
+     * instead of {@link #notifyDataSetChanged()} when only a few properties of a single item
+     * have changed, only the annotated methods and {@link ViewHandler}s for those Views are
+     * invoked. Nothing happens if the item is not visible, it will be bound when it is
+     * scrolled into view.
+     *
+     * @param adapterView The {@link AdapterView} this adapter is set to.
+     * @param position Position of the changed item.
+     * @param viewIds Ids of the Views whose values have changed.
+     */
+    public void notifyViewsChanged(final AdapterView<?> adapterView, final int position,
+            final int... viewIds) {
+        if (mPrecomputedRows != null) {
+            mPrecomputedRows.remove(position);
+        }
+        T instance = getItem(position);
+        InstantAdapterCore<T> instantAdapterCore = getInstantAdapterCore(instance);
+        View view = instantAdapterCore.getVisibleView(adapterView, position);
+        if (view != null) {
+            instantAdapterCore.bindToView(adapterView, view, instance, position, viewIds);
+        }
+    }
+
+    /**
+     * Sets a {@link ViewHandler} for a View with the given id. When the adapter has several
+     * layouts, the handler is only invoked for rows whose layout has a View with that id.
      * 
      * @param viewId Id of the view you want to handle.
      * @param viewHandler A {@link ViewHandler} instance for your view with the given id.
      */
     public void setViewHandler(final int viewId, final ViewHandler<T> viewHandler) {
-        mInstantAdapterCore.setViewHandler(viewId, viewHandler);
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.setViewHandler(viewId, viewHandler);
+        }
+    }
+
+    /**
+     * Sets an {@link HtmlCache} for {@link InstantText}s with {@code isHtml} set, so that the
+     * same HTML is not parsed every time a row is bound. Caches can be shared between adapters.
+     *
+     * @param htmlCache The {@link HtmlCache}, {@code null} to parse HTML on every bind.
+     */
+    public void setHtmlCache(final HtmlCache htmlCache) {
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.setHtmlCache(htmlCache);
+        }
+    }
+
+    /**
+     * Sets a {@link BindingMonitor} that is told how long each step of binding a row takes,
+     * e.g. a {@link BindingStats}. Rows are not timed unless a monitor is set.
+     *
+     * @param bindingMonitor The {@link BindingMonitor}, {@code null} to stop timing binds.
+     */
+    public void setBindingMonitor(final BindingMonitor bindingMonitor) {
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.setBindingMonitor(bindingMonitor);
+        }
+    }
+
+    /**
+     * Inflates rows on a background thread ahead of time, e.g. before the adapter is set to its
+     * {@link AdapterView}, so that the first screen and the first fling do not have to inflate
+     * layouts on the UI thread. With several layouts, {@code count} rows are inflated for each.
+     * Views in the layouts must be safe to construct off the UI thread, if inflating a row fails
+     * the error is logged and rows are inflated on the UI thread as usual.
+     *
+     * @param parent The {@link AdapterView} the rows will be displayed in, used to generate
+     *          their layout params.
+     * @param count Number of rows to inflate, at most 32 rows are kept for each layout.
+     */
+    public void prewarmViews(final ViewGroup parent, final int count) {
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.prewarmViews(parent, count);
+        }
+    }
+
+    /**
+     * Gets the number of rows that were taken from the rows inflated by
+     * {@link #prewarmViews(ViewGroup, int)}.
+     *
+     * @return The number of pool hits.
+     */
+    public long getViewPoolHitCount() {
+        long viewPoolHitCount = 0;
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            viewPoolHitCount += instantAdapterCore.getViewPoolHitCount();
+        }
+        return viewPoolHitCount;
+    }
+
+    /**
+     * Gets the number of rows that had to be inflated on the UI thread.
+     *
+     * @return The number of pool misses.
+     */
+    public long getViewPoolMissCount() {
+        long viewPoolMissCount = 0;
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            viewPoolMissCount += instantAdapterCore.getViewPoolMissCount();
+        }
+        return viewPoolMissCount;
+    }
+
+    /**
+     * Gets the number of times a {@link TextView}'s text was set while binding views.
+     *
+     * @return The number of {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getTextUpdateCount() {
+        long textUpdateCount = 0;
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            textUpdateCount += instantAdapterCore.getTextUpdateCount();
+        }
+        return textUpdateCount;
+    }
+
+    /**
+     * Gets the number of times setting a {@link TextView}'s text was skipped because the bound
+     * text had not changed. See {@link InstantText#skipUnchanged()}.
+     *
+     * @return The number of avoided {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getSkippedTextUpdateCount() {
+        long skippedTextUpdateCount = 0;
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            skippedTextUpdateCount += instantAdapterCore.getSkippedTextUpdateCount();
+        }
+        return skippedTextUpdateCount;
+    }
+
+    /**
+     * Resets the text update counters, e.g. before measuring a scroll.
+     */
+    public void resetTextUpdateCounts() {
+        for (InstantAdapterCore<T> instantAdapterCore : mInstantAdapterCores) {
+            instantAdapterCore.resetTextUpdateCounts();
+        }
+    }
+
+    private void prefetch(final int position) {
+        int direction = position >= mLastPosition ? 1 : -1;
+        mLastPosition = position;
+
+        // Drop the rows that are out of reach
+        for (int i = mPrecomputedRows.size() - 1; i >= 0; i--) {
+            if (Math.abs(mPrecomputedRows.keyAt(i) - position) > mPrefetchDistance) {
+                mPrecomputedRows.removeAt(i);
+            }
+        }
+
+        // Count the rows to prefetch first, most calls have none and should not allocate
+        int count = getCount();
+        int nPrefetchRows = 0;
+        for (int i = 1; i <= mPrefetchDistance; i++) {
+            int prefetchPosition = position + direction * i;
+            if (prefetchPosition < 0 || prefetchPosition >= count) {
+                break;
+            }
+            if (needsPrecomputation(prefetchPosition)) {
+                nPrefetchRows++;
+            }
+        }
+        if (nPrefetchRows == 0) {
+            return;
+        }
+
+        final List<T> instances = new ArrayList<T>(nPrefetchRows);
+        final List<InstantAdapterCore<T>> instantAdapterCores =
+                new ArrayList<InstantAdapterCore<T>>(nPrefetchRows);
+        final int[] positions = new int[nPrefetchRows];
+        for (int i = 1; i <= mPrefetchDistance; i++) {
+            int prefetchPosition = position + direction * i;
+            if (prefetchPosition < 0 || prefetchPosition >= count) {
+                break;
+            }
+            if (!needsPrecomputation(prefetchPosition)) {
+                continue;
+            }
+
+            T instance = getItem(prefetchPosition);
+            positions[instances.size()] = prefetchPosition;
+            instances.add(instance);
+            instantAdapterCores.add(getInstantAdapterCore(instance));
+            mPendingPrecomputations.put(prefetchPosition, Boolean.TRUE);
+        }
+
+        final int generation = mPrefetchGeneration;
+        InstantExecutors.background().execute(new Runnable() {
+
+            @Override
+            public void run() {
+                int nInstances = instances.size();
+                final PrecomputedRow[] precomputedRows = new PrecomputedRow[nInstances];
+                for (int i = 0; i < nInstances; i++) {
+                    precomputedRows[i] = instantAdapterCores.get(i)
+                            .precompute(instances.get(i));
+                }
+
+                InstantExecutors.mainThread().post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (generation != mPrefetchGeneration) {
+                            return;
+                        }
+                        for (int i = 0; i < precomputedRows.length; i++) {
+                            mPendingPrecomputations.remove(positions[i]);
+                            mPrecomputedRows.put(positions[i], precomputedRows[i]);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private boolean needsPrecomputation(final int position) {
+        PrecomputedRow precomputedRow = mPrecomputedRows.get(position);
+        return (precomputedRow == null || precomputedRow.instance != getItem(position))
+                && mPendingPrecomputations.get(position) == null;
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private void addAllItems(final List<T> items) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            addAll(items);
+            return;
+        }
+
+        int nItems = items.size();
+        for (int i = 0; i < nItems; i++) {
+            add(items.get(i));
+        }
+    }
+
+    private InstantAdapterCore<T> getInstantAdapterCore(final T instance) {
+        return mInstantAdapterCores[mInstantAdapterCores.length == 1 ? 0 : getViewType(instance)];
+    }
+
+    private int getViewType(final T instance) {
+        Class<?> clazz = instance.getClass();
+        Integer viewType = mViewTypes.get(clazz);
+        if (viewType != null) {
+            return viewType;
+        }
+
+        // Closest superclass first, then the first matching interface
+        int bestViewType = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < mDataTypes.length; i++) {
+            if (!mDataTypes[i].isAssignableFrom(clazz)) {
+                continue;
+            }
+            int distance = 0;
+            Class<?> superclass = clazz;
+            while (superclass != null && superclass != mDataTypes[i]) {
+                superclass = superclass.getSuperclass();
+                distance++;
+            }
+            if (superclass == null) {
+                distance = Integer.MAX_VALUE - 1;
+            }
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestViewType = i;
+            }
+        }
+
+        if (bestViewType == -1) {
+            throw new IllegalStateException(String.format("No layout for %s, add it to the " +
+                    "'layouts' passed to the constructor.", clazz.getName()));
+        }
+        mViewTypes.put(clazz, bestViewType);
+        return bestViewType;
+    }
+
+    private void clearPrecomputedRows() {
+        if (mPrecomputedRows != null) {
+            mPrecomputedRows.clear();
+            mPendingPrecomputations.clear();
+            mPrefetchGeneration++;
+        }
+    }
+
+    /**
+     * Identifies and compares items using {@link Object#equals(Object)}.
+     */
+    private static class EqualsDiffCallback<T> implements DiffCallback<T> {
+
+        @Override
+        public Object getId(final T item) {
+            return item;
+        }
+
+        @Override
+        public boolean areContentsTheSame(final T oldItem, final T newItem) {
+            return true;
+        }
     }
 
 }
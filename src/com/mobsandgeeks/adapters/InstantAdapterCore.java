@@ -24,16 +24,15 @@ import android.view.ViewGroup;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.ListAdapter;
+import android.widget.ListView;
 import android.widget.TextView;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.text.SimpleDateFormat;
-import java.util.HashSet;
-import java.util.Locale;
-import java.util.Set;
+import com.mobsandgeeks.adapters.BindingPlan.Step;
+import com.mobsandgeeks.adapters.Bindings.Meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * {@link InstantAdapterCore} does all the heavy lifting behind the scenes for
@@ -53,6 +52,7 @@ class InstantAdapterCore<T> {
 
     // Constants
     private static final String EMPTY_STRING = "";
+    static final int MAX_POOLED_VIEWS = 32;
 
     // Attributes
     private Context mContext;
@@ -60,13 +60,29 @@ class InstantAdapterCore<T> {
     private int mLayoutResourceId;
     private LayoutInflater mLayoutInflater;
     private Class<?> mDataType;
-    private Set<Integer> mAnnotatedViewIds;
     private SparseArray<ViewHandler<T>> mViewHandlers;
-
-    // Caches
-    private SparseArray<Meta> mViewIdsAndMetaCache;
-    private SparseArray<SimpleDateFormat> mDateFormatCache;
-    private SparseArray<String> mFormatStringCache;
+    private Bindings mBindings;
+    private BindingPlan mBindingPlan;
+    private HtmlCache mHtmlCache;
+    private BindingMonitor mBindingMonitor;
+    private DiffCallback<T> mUnchangedRowCallback;
+    private boolean mSkipMissingHandlerViews;
+
+    // Dispatch plan, rebuilt whenever ViewHandlers are added or removed
+    private int[] mDispatchViewIds;
+    private ViewHandler<T>[] mDispatchViewHandlers;
+    private int mDispatchPlanVersion;
+
+    // Warm view pool, filled on the inflater thread
+    private final List<View> mViewPool = new ArrayList<View>();
+    private LayoutInflater mPoolLayoutInflater;
+    private volatile boolean mPrewarmFailed;
+    private long mViewPoolHitCount;
+    private long mViewPoolMissCount;
+
+    // Counters
+    private long mTextUpdateCount;
+    private long mSkippedTextUpdateCount;
 
     /**
      * Constructs a new {@link InstantAdapterCore} for your {@link InstantAdapter} and
@@ -91,17 +107,15 @@ class InstantAdapterCore<T> {
         }
 
         mContext = context;
+        mAdapter = adapter;
         mLayoutResourceId = layoutResourceId;
         mLayoutInflater = LayoutInflater.from(context);
         mDataType = dataType;
         mViewHandlers = new SparseArray<ViewHandler<T>>();
-        mAnnotatedViewIds = new HashSet<Integer>();
-        mViewIdsAndMetaCache = new SparseArray<Meta>();
-        mDateFormatCache = new SparseArray<SimpleDateFormat>();
-        mFormatStringCache = new SparseArray<String>();
 
         // Setup
-        findAnnotatedMethods();
+        mBindings = BindingRegistry.obtain(context, dataType, layoutResourceId);
+        buildDispatchPlan();
     }
 
     /**
@@ -115,41 +129,304 @@ class InstantAdapterCore<T> {
      */
     public final void bindToView(final ViewGroup parent, final View view,
             final T instance, final int position) {
-        SparseArray<Holder> holders = (SparseArray<Holder>) view.getTag(mLayoutResourceId);
-        updateAnnotatedViews(holders, view, instance, position);
-        executeViewHandlers(holders, parent, view, instance, position);
+        BindingMonitor bindingMonitor = mBindingMonitor;
+        if (bindingMonitor != null) {
+            bindToViewMonitored(bindingMonitor, parent, view, instance, position, null, null);
+            return;
+        }
+
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        if (!isBoundToUnchangedInstance(rowHolder, instance)) {
+            updateAnnotatedViews(rowHolder, view, instance, position);
+        }
+        executeViewHandlers(rowHolder, parent, view, instance, position, null, null);
+    }
+
+    /**
+     * Binds a POJO to a row whose item is known to have changed, the annotated Views are
+     * updated even if the row is bound to an instance that
+     * {@link #setUnchangedRowCallback(DiffCallback)} would consider unchanged.
+     *
+     * @param parent The {@link View}'s parent, usually an {@link AdapterView} such as a
+     *          {@link ListView}.
+     * @param view The associated view.
+     * @param instance Instance backed by the adapter at the given position.
+     * @param position The list item's position.
+     */
+    public final void rebindToView(final ViewGroup parent, final View view,
+            final T instance, final int position) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        if (rowHolder != null) {
+            rowHolder.boundInstance = null;
+        }
+        bindToView(parent, view, instance, position);
+    }
+
+    /**
+     * Checks if the model has an {@link InstantId} annotated method.
+     *
+     * @return {@code true} if {@link #getItemId(Object)} can be used.
+     */
+    public boolean hasItemIds() {
+        return mBindings.getIdMeta() != null;
+    }
+
+    /**
+     * Returns the id of an instance, see {@link InstantId}.
+     *
+     * @param instance The instance.
+     *
+     * @return The value returned by the {@link InstantId} annotated method.
+     *
+     * @throws IllegalStateException If the model does not have an {@link InstantId} annotated
+     *          method or the method returned {@code null}.
+     */
+    public long getItemId(final T instance) {
+        Meta idMeta = mBindings.getIdMeta();
+        if (idMeta == null) {
+            throw new IllegalStateException(String.format("%s does not have an @InstantId " +
+                    "annotated method.", mDataType.getName()));
+        }
+
+        Object id = idMeta.accessor.get(instance, mContext);
+        if (id == null) {
+            throw new IllegalStateException(String.format("%s.%s() returned null.",
+                    mDataType.getName(), idMeta.method.getName()));
+        }
+        return ((Number) id).longValue();
+    }
+
+    /**
+     * Binds a POJO to the inflated View using texts that were computed in advance by
+     * {@link #precompute(Object)}, so that no annotated methods are invoked and nothing is
+     * formatted. Falls back to {@link #bindToView(ViewGroup, View, Object, int)} if the texts
+     * were computed for a different instance.
+     *
+     * @param parent The {@link View}'s parent, usually an {@link AdapterView} such as a
+     *          {@link ListView}.
+     * @param view The associated view.
+     * @param instance Instance backed by the adapter at the given position.
+     * @param position The list item's position.
+     * @param precomputedRow The texts computed for the instance.
+     */
+    public final void bindPrecomputedToView(final ViewGroup parent, final View view,
+            final T instance, final int position, final PrecomputedRow precomputedRow) {
+        if (precomputedRow.instance != instance) {
+            bindToView(parent, view, instance, position);
+            return;
+        }
+
+        BindingMonitor bindingMonitor = mBindingMonitor;
+        if (bindingMonitor != null) {
+            bindToViewMonitored(bindingMonitor, parent, view, instance, position, null,
+                    precomputedRow);
+            return;
+        }
+
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        rowHolder.boundInstance = null;
+        Step[] steps = mBindingPlan.getSteps();
+        TextView[] textViews = rowHolder.textViews;
+        int nSlots = steps.length;
+        for (int i = 0; i < nSlots; i++) {
+            if (textViews[i] != null) {
+                updateTextView(rowHolder, i, steps[i], precomputedRow.texts[i],
+                        precomputedRow.values[i]);
+            }
+        }
+        executeViewHandlers(rowHolder, parent, view, instance, position, null, null);
+    }
+
+    /**
+     * Invokes the annotated methods of an instance and formats their values, without touching
+     * any View. Meant to be called on a background thread ahead of
+     * {@link #bindPrecomputedToView(ViewGroup, View, Object, int, PrecomputedRow)}, the
+     * annotated methods should be safe to call from that thread.
+     *
+     * @param instance The instance to compute texts for.
+     *
+     * @return The computed texts.
+     */
+    public PrecomputedRow precompute(final T instance) {
+        Step[] steps = mBindings.getBindingPlan().getSteps();
+        int nSlots = steps.length;
+        String[] texts = new String[nSlots];
+        CharSequence[] values = new CharSequence[nSlots];
+        for (int i = 0; i < nSlots; i++) {
+            Step step = steps[i];
+            Object returnValue = step.accessor.get(instance, mContext);
+            texts[i] = computeText(step, returnValue);
+            if (texts[i] != null) {
+                values[i] = step.isHtml ? fromHtml(texts[i]) : texts[i];
+            }
+        }
+        return new PrecomputedRow(instance, texts, values);
     }
 
     /**
-     * Create a new view by inflating the associated XML layout.
+     * Rebinds only the Views with the given ids, the remaining Views in the row are left
+     * untouched. Only the annotated methods and {@link ViewHandler}s associated with those
+     * Views are invoked.
+     *
+     * @param parent The {@link View}'s parent, usually an {@link AdapterView} such as a
+     *          {@link ListView}.
+     * @param view A view created by {@link #createNewView(Context, ViewGroup)}.
+     * @param instance Instance backed by the adapter at the given position.
+     * @param position The list item's position.
+     * @param viewIds Ids of the Views that have changed.
+     */
+    public final void bindToView(final ViewGroup parent, final View view,
+            final T instance, final int position, final int[] viewIds) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        if (rowHolder == null) {
+            return;
+        }
+
+        BindingMonitor bindingMonitor = mBindingMonitor;
+        if (bindingMonitor != null) {
+            bindToViewMonitored(bindingMonitor, parent, view, instance, position, viewIds,
+                    null);
+            return;
+        }
+
+        // The row may now mix the values of two instances
+        rowHolder.boundInstance = null;
+        int[] slotViewIds = mBindings.getSlotViewIds();
+        for (int viewId : viewIds) {
+            int slot = Arrays.binarySearch(slotViewIds, viewId);
+            if (slot >= 0) {
+                updateAnnotatedView(rowHolder, mBindingPlan.getSteps()[slot], slot, instance);
+            }
+        }
+        executeViewHandlers(rowHolder, parent, view, instance, position, viewIds, null);
+    }
+
+    /**
+     * Clears the annotated {@link TextView}s of a row whose instance is not available yet.
+     * {@link ViewHandler}s are not invoked, the row is expected to be bound again once the
+     * instance is available.
+     *
+     * @param view A view created by {@link #createNewView(Context, ViewGroup)}.
+     */
+    public final void bindPlaceholder(final View view) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        if (rowHolder == null) {
+            return;
+        }
+
+        rowHolder.boundInstance = null;
+        TextView[] textViews = rowHolder.textViews;
+        int nSlots = textViews.length;
+        for (int i = 0; i < nSlots; i++) {
+            if (textViews[i] != null && !(rowHolder.hasTexts[i]
+                    && EMPTY_STRING.equals(rowHolder.texts[i]))) {
+                rowHolder.texts[i] = EMPTY_STRING;
+                rowHolder.hasTexts[i] = true;
+                textViews[i].setText(EMPTY_STRING);
+            }
+        }
+    }
+
+    /**
+     * Create a new view by inflating the associated XML layout. Views inflated in advance by
+     * {@link #prewarmViews(ViewGroup, int)} are handed out first.
      * 
      * @param context The {@link Context} to use.
      * @param parent The inflated view's parent.
      * @return The {@link View} that was inflated from the layout.
      */
     public final View createNewView(final Context context, final ViewGroup parent) {
-        View view = mLayoutInflater.inflate(mLayoutResourceId, parent, false);
-        SparseArray<Holder> holders = new SparseArray<Holder>();
+        if (mBindingPlan == null) {
+            mBindingPlan = mBindings.getBindingPlan();
+        }
 
-        int size = mViewIdsAndMetaCache.size();
-        for (int i = 0; i < size; i++) {
-            int viewId = mViewIdsAndMetaCache.keyAt(i);
-            Meta meta = mViewIdsAndMetaCache.get(viewId);
-            View viewFromLayout = view.findViewById(viewId);
-            if (viewFromLayout == null) {
-                String message = String.format("Cannot find View, check the 'viewId' " +
-                        "attribute on method %s.%s()",
-                            mDataType.getName(), meta.method.getName());
-                throw new IllegalStateException(message);
-            }
-            holders.append(viewId, new Holder(viewFromLayout, meta));
-            mAnnotatedViewIds.add(viewId);
+        BindingMonitor bindingMonitor = mBindingMonitor;
+        if (bindingMonitor == null) {
+            return obtainRow(parent);
         }
-        view.setTag(mLayoutResourceId, holders);
 
+        long start = System.nanoTime();
+        View view = obtainRow(parent);
+        bindingMonitor.onStep(mDataType, mLayoutResourceId, BindingMonitor.STEP_INFLATE,
+                System.nanoTime() - start);
         return view;
     }
 
+    /**
+     * Inflates rows on a background thread, so that
+     * {@link #createNewView(Context, ViewGroup)} can hand them out without inflating the layout
+     * on the UI thread. Views in the layout must be safe to construct off the UI thread. The
+     * pool holds at most {@link #MAX_POOLED_VIEWS} rows. If a row cannot be inflated, the error
+     * is logged, the pool is dropped and rows are inflated on the UI thread from then on.
+     *
+     * @param parent The parent the views will be added to, used to generate their layout
+     *          params. Not modified.
+     * @param count Number of rows to inflate.
+     */
+    public void prewarmViews(final ViewGroup parent, final int count) {
+        if (mPrewarmFailed) {
+            return;
+        }
+        if (mPoolLayoutInflater == null) {
+            // LayoutInflaters are not thread-safe
+            mPoolLayoutInflater = mLayoutInflater.cloneInContext(mContext);
+        }
+        final LayoutInflater layoutInflater = mPoolLayoutInflater;
+
+        InstantExecutors.inflater().post(new Runnable() {
+
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    synchronized (mViewPool) {
+                        if (mPrewarmFailed || mViewPool.size() >= MAX_POOLED_VIEWS) {
+                            return;
+                        }
+                    }
+
+                    View view;
+                    try {
+                        view = inflateRow(layoutInflater, parent);
+                    } catch (RuntimeException e) {
+                        // A best-effort warm-up, the UI thread will inflate rows as usual
+                        Log.w(LOG_TAG, "Unable to prewarm rows, inflating them on demand", e);
+                        mPrewarmFailed = true;
+                        synchronized (mViewPool) {
+                            mViewPool.clear();
+                        }
+                        return;
+                    }
+
+                    synchronized (mViewPool) {
+                        mViewPool.add(view);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the number of rows that were taken from the warm view pool.
+     *
+     * @return The number of pool hits.
+     */
+    public long getViewPoolHitCount() {
+        synchronized (mViewPool) {
+            return mViewPoolHitCount;
+        }
+    }
+
+    /**
+     * Gets the number of rows that had to be inflated on the UI thread.
+     *
+     * @return The number of pool misses.
+     */
+    public long getViewPoolMissCount() {
+        synchronized (mViewPool) {
+            return mViewPoolMissCount;
+        }
+    }
+
     /**
      * Sets an {@link ViewHandler} for a given View id.
      * 
@@ -163,6 +440,7 @@ class InstantAdapterCore<T> {
             throw new IllegalArgumentException("'viewHandler' cannot be null.");
         }
         mViewHandlers.put(viewId, viewHandler);
+        buildDispatchPlan();
     }
 
     /**
@@ -177,7 +455,9 @@ class InstantAdapterCore<T> {
     }
 
     /**
-     * Gets all {@link ViewHandler}s associated with this {@link InstantAdapter}.
+     * Gets all {@link ViewHandler}s associated with this {@link InstantAdapter}. The returned
+     * {@link SparseArray} should not be modified, use {@link #setViewHandler(int, ViewHandler)}
+     * and {@link #removeViewHandler(int)} instead.
      * 
      * @return A {@link SparseArray} containing the all {@link ViewHandler}s.
      */
@@ -192,6 +472,7 @@ class InstantAdapterCore<T> {
      */
     public void removeViewHandler(final int viewId) {
         mViewHandlers.remove(viewId);
+        buildDispatchPlan();
     }
 
     /**
@@ -199,244 +480,540 @@ class InstantAdapterCore<T> {
      */
     public void removeAllViewHandlers() {
         mViewHandlers.clear();
+        buildDispatchPlan();
     }
 
     /**
-     * You should have used this a zillion times if you were doing it right. In case you
-     * didn't, check this 2009 Google IO video - http://www.youtube.com/watch?v=N6YdwzAvwOA
+     * Finds the child of an {@link AdapterView} that currently displays the given adapter
+     * position.
+     *
+     * @param adapterView The {@link AdapterView} displaying the adapter's items.
+     * @param position Position of the item within the adapter.
+     *
+     * @return The child {@link View} or {@code null} if the position is not visible or is not
+     *          displayed by a View created by this {@link InstantAdapterCore}.
      */
-    private static class Holder {
-        View view;
-        Meta meta;
+    public View getVisibleView(final AdapterView<?> adapterView, final int position) {
+        int viewPosition = position;
+        if (adapterView instanceof ListView) {
+            viewPosition += ((ListView) adapterView).getHeaderViewsCount();
+        }
 
-        Holder(final View view, final Meta meta) {
-            this.view = view;
-            this.meta = meta;
+        int childIndex = viewPosition - adapterView.getFirstVisiblePosition();
+        if (childIndex < 0 || childIndex >= adapterView.getChildCount()) {
+            return null;
         }
+
+        View view = adapterView.getChildAt(childIndex);
+        return view.getTag(mLayoutResourceId) instanceof RowHolder ? view : null;
     }
 
     /**
-     * Class holds reference to a View's annotation and it's annotated method.
+     * Returns the model instance kept by a row for reuse, see
+     * {@link #setRowInstance(View, Object)}.
+     *
+     * @param view A view created by {@link #createNewView(Context, ViewGroup)}.
+     *
+     * @return The instance or {@code null} if the row does not hold one.
      */
-    private static class Meta {
-        Annotation annotation;
-        Method method;
+    @SuppressWarnings("unchecked")
+    public T getRowInstance(final View view) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        return rowHolder != null ? (T) rowHolder.instance : null;
+    }
 
-        Meta(final Annotation annotation, final Method method) {
-            this.annotation = annotation;
-            this.method = method;
+    /**
+     * Keeps a model instance with a row, so that it can be refilled the next time the row is
+     * recycled instead of allocating a new one.
+     *
+     * @param view A view created by {@link #createNewView(Context, ViewGroup)}.
+     * @param instance The instance to keep, {@code null} to drop it.
+     */
+    public void setRowInstance(final View view, final T instance) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        if (rowHolder != null) {
+            rowHolder.instance = instance;
         }
     }
 
-    private void findAnnotatedMethods() {
-        Class<?> clazz = mDataType;
-        do {
-            findAnnotatedMethods(clazz);
-            clazz = clazz.getSuperclass();
-        } while (!clazz.equals(Object.class));
+    /**
+     * Skips {@link ViewHandler}s whose View cannot be found in the layout, instead of
+     * invoking them with a {@code null} View. Used by adapters with several layouts, where a
+     * handler may only apply to some of them.
+     *
+     * @param skipMissingHandlerViews {@code true} to skip the handlers.
+     */
+    public void setSkipMissingHandlerViews(final boolean skipMissingHandlerViews) {
+        mSkipMissingHandlerViews = skipMissingHandlerViews;
+    }
 
-        if (DEBUG) {
-            Log.d(LOG_TAG, String.format("Found %d method(s)", mViewIdsAndMetaCache.size()));
-        }
+    /**
+     * Sets the callback used to tell whether a row can keep its annotated Views when it is
+     * bound to a different instance with the same {@link InstantId}. Only
+     * {@link DiffCallback#areContentsTheSame(Object, Object)} is called, on the UI thread.
+     *
+     * @param unchangedRowCallback The callback, {@code null} to always update the Views.
+     */
+    public void setUnchangedRowCallback(final DiffCallback<T> unchangedRowCallback) {
+        mUnchangedRowCallback = unchangedRowCallback;
     }
 
-    private void findAnnotatedMethods(Class<?> clazz) {
-        if (DEBUG) {
-            Log.d(LOG_TAG, "Looking for methods in " + clazz.getName());
-        }
+    /**
+     * Sets the {@link HtmlCache} used for {@link InstantText}s with {@code isHtml} set.
+     *
+     * @param htmlCache The {@link HtmlCache}, {@code null} to parse HTML on every bind.
+     */
+    public void setHtmlCache(final HtmlCache htmlCache) {
+        mHtmlCache = htmlCache;
+    }
 
-        Method[] declaredMethods = clazz.getDeclaredMethods();
-        for (Method method : declaredMethods) {
-            Annotation[] annotations = method.getAnnotations();
-            for (Annotation annotation : annotations) {
-                if (isInstantAnnotation(annotation)) {
-                    // Assertions
-                    assertMethodIsPublic(method);
-                    assertNoParamsOrSingleContextParam(method);
-                    assertNonVoidReturnType(method);
+    /**
+     * Returns the {@link HtmlCache} set on this core, may be {@code null}.
+     */
+    public HtmlCache getHtmlCache() {
+        return mHtmlCache;
+    }
 
-                    // TODO Check if view type is compatible with the annotation
-                    Meta meta = new Meta(annotation, method);
-                    if (annotation instanceof InstantText) {
-                        mViewIdsAndMetaCache.append(((InstantText) annotation).viewId(), meta);
-                    }
+    /**
+     * Sets a {@link BindingMonitor} that is told how long each step of binding a row takes.
+     *
+     * @param bindingMonitor The {@link BindingMonitor}, {@code null} to stop timing binds.
+     */
+    public void setBindingMonitor(final BindingMonitor bindingMonitor) {
+        mBindingMonitor = bindingMonitor;
+    }
+
+    /**
+     * Returns the {@link BindingMonitor} set on this core, may be {@code null}.
+     */
+    public BindingMonitor getBindingMonitor() {
+        return mBindingMonitor;
+    }
+
+    /**
+     * Returns the data type bound by this core.
+     */
+    public Class<?> getDataType() {
+        return mDataType;
+    }
+
+    /**
+     * Gets the number of times a {@link TextView}'s text was set while binding.
+     *
+     * @return The number of {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getTextUpdateCount() {
+        return mTextUpdateCount;
+    }
+
+    /**
+     * Gets the number of times setting a {@link TextView}'s text was skipped because the bound
+     * text did not change.
+     *
+     * @return The number of avoided {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getSkippedTextUpdateCount() {
+        return mSkippedTextUpdateCount;
+    }
+
+    /**
+     * Resets the text update counters to zero.
+     */
+    public void resetTextUpdateCounts() {
+        mTextUpdateCount = 0;
+        mSkippedTextUpdateCount = 0;
+    }
+
+    /**
+     * You should have used this a zillion times if you were doing it right. In case you
+     * didn't, check this 2009 Google IO video - http://www.youtube.com/watch?v=N6YdwzAvwOA
+     * <p>
+     * Views are held in arrays indexed by binding slot (see {@link Bindings#getSlotViewIds()})
+     * and by dispatch plan entry, so binding a row needs no lookups. {@link TextView}s are also
+     * held already cast, {@code null} for slots bound to other Views, so that binding needs no
+     * type checks either. The holder also remembers the last text that was set on each
+     * {@link TextView}, so that we can skip setting it again when a row is bound to the same
+     * text, and optionally a model instance that is refilled each time the row is recycled.
+     * When unchanged rows are skipped, the instance and id the row was last bound to are kept
+     * as well.
+     * </p>
+     */
+    private static class RowHolder {
+        final View[] views;
+        final TextView[] textViews;
+        final String[] texts;
+        final boolean[] hasTexts;
+        View[] handlerViews;
+        int dispatchPlanVersion = -1;
+        Object instance;
+        Object boundInstance;
+        long boundId;
+
+        RowHolder(final View[] views) {
+            this.views = views;
+            this.textViews = new TextView[views.length];
+            for (int i = 0; i < views.length; i++) {
+                if (views[i] instanceof TextView) {
+                    textViews[i] = (TextView) views[i];
                 }
             }
+            this.texts = new String[views.length];
+            this.hasTexts = new boolean[views.length];
         }
     }
 
-    private boolean isInstantAnnotation(final Annotation annotation) {
-        return annotation.annotationType().equals(InstantText.class);
+    /**
+     * Texts computed ahead of binding by {@link InstantAdapterCore#precompute(Object)}, in
+     * binding slot order. Values hold the parsed HTML for {@link InstantText}s with
+     * {@code isHtml} set.
+     */
+    static final class PrecomputedRow {
+        final Object instance;
+        final String[] texts;
+        final CharSequence[] values;
+
+        PrecomputedRow(final Object instance, final String[] texts,
+                final CharSequence[] values) {
+            this.instance = instance;
+            this.texts = texts;
+            this.values = values;
+        }
     }
 
-    private void assertMethodIsPublic(final Method method) {
-        if (!Modifier.isPublic(method.getModifiers())) {
-            throw new IllegalStateException(String.format("%s.%s() should be public",
-                            mDataType.getSimpleName(), method.getName()));
+    /**
+     * Takes a row from the warm view pool or inflates a new one.
+     */
+    private View obtainRow(final ViewGroup parent) {
+        synchronized (mViewPool) {
+            int nPooledViews = mViewPool.size();
+            if (nPooledViews > 0) {
+                mViewPoolHitCount++;
+                return mViewPool.remove(nPooledViews - 1);
+            }
+            mViewPoolMissCount++;
         }
+
+        View view = inflateRow(mLayoutInflater, parent);
+        resolveHandlerViews((RowHolder) view.getTag(mLayoutResourceId), view);
+        return view;
     }
 
-    private void assertNoParamsOrSingleContextParam(final Method method) {
-        Class<?>[] parameters = method.getParameterTypes();
-        final int nParameters = parameters.length;
-        if (nParameters > 0) {
-            String errorMessage = String.format("%s.%s() can have a single Context " +
-                    "parameter or should have no parameters.",
-                        mDataType.getSimpleName(), method.getName());
-            if (parameters.length == 1) {
-                Class<?> parameterType = parameters[0];
-                if (!parameterType.isAssignableFrom(Context.class)) {
-                    throw new IllegalStateException(errorMessage);
-                }
-            } else if (parameters.length > 1) {
-                throw new IllegalStateException(errorMessage);
+    /**
+     * Inflates a row and sets up its {@link RowHolder}. ViewHandler Views are resolved on the
+     * UI thread, when the row is first bound.
+     */
+    private View inflateRow(final LayoutInflater layoutInflater, final ViewGroup parent) {
+        View view = layoutInflater.inflate(mLayoutResourceId, parent, false);
+
+        int[] viewIds = mBindings.getSlotViewIds();
+        Meta[] metas = mBindings.getSlotMetas();
+        int nSlots = viewIds.length;
+        View[] views = new View[nSlots];
+        for (int i = 0; i < nSlots; i++) {
+            int viewId = viewIds[i];
+            View viewFromLayout = view.findViewById(viewId);
+            if (viewFromLayout == null) {
+                String message = String.format("Cannot find View, check the 'viewId' " +
+                        "attribute on method %s.%s()",
+                            mDataType.getName(), metas[i].method.getName());
+                throw new IllegalStateException(message);
             }
+            views[i] = viewFromLayout;
         }
+
+        view.setTag(mLayoutResourceId, new RowHolder(views));
+
+        return view;
     }
 
-    private void assertNonVoidReturnType(final Method method) {
-        if (method.getReturnType().equals(Void.TYPE)) {
-            throw new UnsupportedOperationException(
-                    String.format("Methods with void return types cannot be annotated, " +
-                            "check %s.%s()", mDataType.getSimpleName(), method.getName()));
+    /**
+     * Checks if the row displays a different instance with the same id whose contents the
+     * unchanged row callback reports as the same. The same instance is always rebound because
+     * it may have been modified.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isBoundToUnchangedInstance(final RowHolder rowHolder, final T instance) {
+        DiffCallback<T> unchangedRowCallback = mUnchangedRowCallback;
+        if (unchangedRowCallback == null || mBindings.getIdMeta() == null) {
+            return false;
         }
+
+        long id = getItemId(instance);
+        T boundInstance = (T) rowHolder.boundInstance;
+        boolean unchanged = boundInstance != null && boundInstance != instance
+                && rowHolder.boundId == id
+                && unchangedRowCallback.areContentsTheSame(boundInstance, instance);
+        rowHolder.boundInstance = instance;
+        rowHolder.boundId = id;
+        return unchanged;
     }
 
-    private void updateAnnotatedViews(final SparseArray<Holder> holders, final View parent,
+    private void updateAnnotatedViews(final RowHolder rowHolder, final View parent,
             final T instance, final int position) {
-        int nHolders = holders.size();
-        for (int i = 0; i < nHolders; i++) {
-            Holder holder = holders.valueAt(i);
-            Meta meta = holder.meta;
-            if (meta == null) continue; // ViewHandler-only views will have a null meta
-
-            Object returnValue = invokeReflectedMethod(meta.method, instance);
-
-            // Update view from data
-            Class<? extends View> viewType = holder.view.getClass();
-            if (TextView.class.isAssignableFrom(viewType)) {
-                updateTextView(holder, returnValue);
-            }
-
-            // Evaluators for child views
-            ViewHandler<T> viewHandler = mViewHandlers.get(holder.view.getId());
-            if (viewHandler != null) {
-                viewHandler.handleView(mAdapter, parent, holder.view, instance, position);
-            }
+        Step[] steps = mBindingPlan.getSteps();
+        int nSlots = steps.length;
+        for (int i = 0; i < nSlots; i++) {
+            updateAnnotatedView(rowHolder, steps[i], i, instance);
         }
     }
 
-    private Object invokeReflectedMethod(final Method method, final T instance) {
-        Object returnValue = null;
+    private void updateAnnotatedView(final RowHolder rowHolder, final Step step, final int slot,
+            final T instance) {
+        Object returnValue = step.accessor.get(instance, mContext);
 
-        try {
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            int nParameters = parameterTypes.length;
-            if (nParameters == 0) {
-                returnValue = method.invoke(instance);
-            } else if (nParameters == 1) {
-                returnValue = method.invoke(instance, mContext);
-            }
-        } catch (IllegalArgumentException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-        } catch (InvocationTargetException e) {
-            e.printStackTrace();
+        // Update view from data
+        if (rowHolder.textViews[slot] != null) {
+            updateTextView(rowHolder, slot, step, computeText(step, returnValue), null);
         }
+    }
 
-        return returnValue;
+    /**
+     * Binds a row like {@link #bindToView(ViewGroup, View, Object, int)} and its variants do,
+     * timing each step. Kept apart from the regular binds so that they do not pay for timing
+     * when there is no {@link BindingMonitor}.
+     */
+    private void bindToViewMonitored(final BindingMonitor bindingMonitor, final ViewGroup parent,
+            final View view, final T instance, final int position, final int[] viewIds,
+            final PrecomputedRow precomputedRow) {
+        RowHolder rowHolder = (RowHolder) view.getTag(mLayoutResourceId);
+        Step[] steps = mBindingPlan.getSteps();
+        int nSlots = steps.length;
+        if (precomputedRow != null) {
+            rowHolder.boundInstance = null;
+            for (int i = 0; i < nSlots; i++) {
+                if (rowHolder.textViews[i] != null) {
+                    long stepStart = System.nanoTime();
+                    updateTextView(rowHolder, i, steps[i], precomputedRow.texts[i],
+                            precomputedRow.values[i]);
+                    bindingMonitor.onStep(mDataType, steps[i].viewId,
+                            BindingMonitor.STEP_SET_TEXT, System.nanoTime() - stepStart);
+                }
+            }
+        } else if (viewIds != null) {
+            rowHolder.boundInstance = null;
+            int[] slotViewIds = mBindings.getSlotViewIds();
+            for (int viewId : viewIds) {
+                int slot = Arrays.binarySearch(slotViewIds, viewId);
+                if (slot >= 0) {
+                    updateAnnotatedViewMonitored(bindingMonitor, rowHolder, steps[slot], slot,
+                            instance);
+                }
+            }
+        } else if (!isBoundToUnchangedInstance(rowHolder, instance)) {
+            for (int i = 0; i < nSlots; i++) {
+                updateAnnotatedViewMonitored(bindingMonitor, rowHolder, steps[i], i, instance);
+            }
+        }
+        executeViewHandlers(rowHolder, parent, view, instance, position, viewIds,
+                bindingMonitor);
     }
 
-    private void updateTextView(final Holder holder, final Object returnValue) {
-        InstantText instantText = (InstantText) holder.meta.annotation;
-        TextView textView = (TextView) holder.view;
-        int viewId = textView.getId();
+    private void updateAnnotatedViewMonitored(final BindingMonitor bindingMonitor,
+            final RowHolder rowHolder, final Step step, final int slot, final T instance) {
+        int viewId = step.viewId;
+
+        long start = System.nanoTime();
+        Object returnValue = step.accessor.get(instance, mContext);
+        long end = System.nanoTime();
+        bindingMonitor.onStep(mDataType, viewId, BindingMonitor.STEP_GETTER, end - start);
+
+        TextView textView = rowHolder.textViews[slot];
+        if (textView == null) {
+            return;
+        }
 
         String text = null;
         if (returnValue != null) {
-            text = applyDatePattern(viewId, instantText, returnValue);
-            text = applyFormatString(viewId, instantText, text, returnValue);
+            CompiledDatePattern datePattern = step.datePattern;
+            if (datePattern != null) {
+                start = end;
+                text = datePattern.format(returnValue);
+                end = System.nanoTime();
+                bindingMonitor.onStep(mDataType, viewId, BindingMonitor.STEP_DATE_PATTERN,
+                        end - start);
+            }
+
+            CompiledFormat format = step.format;
+            if (format != null) {
+                start = end;
+                text = format.format(text != null ? text : returnValue);
+                end = System.nanoTime();
+                bindingMonitor.onStep(mDataType, viewId, BindingMonitor.STEP_FORMAT_STRING,
+                        end - start);
+            }
+
             if (text == null) {
                 text = returnValue.toString();
             }
         }
 
-        textView.setText(instantText.isHtml() ? Html.fromHtml(text) : text);
+        if (isTextUnchanged(rowHolder, slot, step, text)) {
+            mSkippedTextUpdateCount++;
+            return;
+        }
+
+        CharSequence value = text;
+        if (step.isHtml) {
+            start = System.nanoTime();
+            value = fromHtml(text);
+            end = System.nanoTime();
+            bindingMonitor.onStep(mDataType, viewId, BindingMonitor.STEP_HTML, end - start);
+        }
+
+        start = System.nanoTime();
+        rowHolder.texts[slot] = text;
+        rowHolder.hasTexts[slot] = true;
+        textView.setText(value);
+        end = System.nanoTime();
+        bindingMonitor.onStep(mDataType, viewId, BindingMonitor.STEP_SET_TEXT, end - start);
+        mTextUpdateCount++;
     }
 
-    private String applyDatePattern(final int viewId, final InstantText instantText,
-            final Object returnValue) {
-        int index = mDateFormatCache.indexOfKey(viewId);
-        SimpleDateFormat simpleDateFormat = null;
+    private String computeText(final Step step, final Object returnValue) {
         String text = null;
+        if (returnValue != null) {
+            text = applyDatePattern(step, returnValue);
+            text = applyFormatString(step, text, returnValue);
+            if (text == null) {
+                text = returnValue.toString();
+            }
+        }
+        return text;
+    }
 
-        if (index > -1) {
-            simpleDateFormat = mDateFormatCache.get(viewId);
-        } else {
-            int datePatternRes = instantText.datePatternResId();
-            String datePattern = datePatternRes != 0 ?
-                    mContext.getString(datePatternRes) : instantText.datePattern();
+    private void updateTextView(final RowHolder rowHolder, final int slot, final Step step,
+            final String text, final CharSequence value) {
+        TextView textView = rowHolder.textViews[slot];
 
-            if (datePattern != null && !EMPTY_STRING.equals(datePattern)) {
-                simpleDateFormat = new SimpleDateFormat(datePattern, Locale.getDefault());
-                mDateFormatCache.put(viewId, simpleDateFormat);
-            }
+        if (isTextUnchanged(rowHolder, slot, step, text)) {
+            mSkippedTextUpdateCount++;
+            return;
         }
 
-        if (simpleDateFormat != null) {
-            text = simpleDateFormat.format(returnValue);
+        rowHolder.texts[slot] = text;
+        rowHolder.hasTexts[slot] = true;
+        if (value != null) {
+            textView.setText(value);
+        } else {
+            textView.setText(step.isHtml ? fromHtml(text) : text);
         }
+        mTextUpdateCount++;
+    }
 
-        return text;
+    private boolean isTextUnchanged(final RowHolder rowHolder, final int slot, final Step step,
+            final String text) {
+        return step.skipUnchanged && rowHolder.hasTexts[slot] && (text == null ?
+                rowHolder.texts[slot] == null : text.equals(rowHolder.texts[slot]));
     }
 
-    private String applyFormatString(final int viewId, final InstantText instantText,
-            final String dateFormattedString, final Object returnValue) {
-        int index = mFormatStringCache.indexOfKey(viewId);
-        String formatString = null;
-        String formatted = dateFormattedString;
+    private CharSequence fromHtml(final String text) {
+        HtmlCache htmlCache = mHtmlCache;
+        return htmlCache != null ? htmlCache.fromHtml(text) : Html.fromHtml(text);
+    }
 
-        if (index > -1) {
-            formatString = mFormatStringCache.get(viewId);
-        } else {
-            int formatStringRes = instantText.formatStringResId();
-            formatString = formatStringRes != 0 ?
-                    mContext.getString(formatStringRes) : instantText.formatString();
-            mFormatStringCache.put(viewId, formatString);
+    private String applyDatePattern(final Step step, final Object returnValue) {
+        CompiledDatePattern datePattern = step.datePattern;
+        String text = null;
+
+        if (datePattern != null) {
+            text = datePattern.format(returnValue);
         }
 
-        if (formatString != null && !EMPTY_STRING.equals(formatString)) {
-            formatted = String.format(formatString, dateFormattedString != null ?
+        return text;
+    }
+
+    private String applyFormatString(final Step step, final String dateFormattedString,
+            final Object returnValue) {
+        CompiledFormat format = step.format;
+        String formatted = dateFormattedString;
+
+        if (format != null) {
+            formatted = format.format(dateFormattedString != null ?
                     dateFormattedString : returnValue);
         }
 
         return formatted;
     }
 
-    private void executeViewHandlers(final SparseArray<Holder> holders,
-            final View parent, final View view, final T instance, final int position) {
+    private void buildDispatchPlan() {
         int nViewHandlers = mViewHandlers.size();
+        int[] viewIds = new int[nViewHandlers];
+        @SuppressWarnings("unchecked")
+        ViewHandler<T>[] viewHandlers = (ViewHandler<T>[]) new ViewHandler<?>[nViewHandlers];
+
         for (int i = 0; i < nViewHandlers; i++) {
-            int viewId = mViewHandlers.keyAt(i);
-            ViewHandler<T> viewHandler = mViewHandlers.get(viewId);
+            viewIds[i] = mViewHandlers.keyAt(i);
+            viewHandlers[i] = mViewHandlers.valueAt(i);
+        }
+
+        mDispatchViewIds = viewIds;
+        mDispatchViewHandlers = viewHandlers;
+        mDispatchPlanVersion++;
+    }
 
-            if (viewHandler == null) continue;
+    private void resolveHandlerViews(final RowHolder rowHolder, final View view) {
+        int[] slotViewIds = mBindings.getSlotViewIds();
+        int[] viewIds = mDispatchViewIds;
+        int nViewHandlers = viewIds.length;
+        View[] handlerViews = new View[nViewHandlers];
 
+        for (int i = 0; i < nViewHandlers; i++) {
+            int viewId = viewIds[i];
             if (viewId == mLayoutResourceId) {
-                viewHandler.handleView(mAdapter, parent, view, instance, position);
+                continue;
+            }
+
+            int slot = Arrays.binarySearch(slotViewIds, viewId);
+            handlerViews[i] = slot >= 0 ? rowHolder.views[slot] : view.findViewById(viewId);
+        }
+
+        rowHolder.handlerViews = handlerViews;
+        rowHolder.dispatchPlanVersion = mDispatchPlanVersion;
+    }
+
+    private void executeViewHandlers(final RowHolder rowHolder, final View parent,
+            final View view, final T instance, final int position, final int[] changedViewIds,
+            final BindingMonitor bindingMonitor) {
+        if (rowHolder.dispatchPlanVersion != mDispatchPlanVersion) {
+            // ViewHandlers changed after this row was created
+            resolveHandlerViews(rowHolder, view);
+        }
+
+        // Each ViewHandler is invoked exactly once per bind
+        int[] viewIds = mDispatchViewIds;
+        ViewHandler<T>[] viewHandlers = mDispatchViewHandlers;
+        View[] handlerViews = rowHolder.handlerViews;
+        int nViewHandlers = viewHandlers.length;
+        for (int i = 0; i < nViewHandlers; i++) {
+            if (changedViewIds != null && !contains(changedViewIds, viewIds[i])) {
+                continue;
+            }
+
+            if (viewIds[i] != mLayoutResourceId && handlerViews[i] == null
+                    && mSkipMissingHandlerViews) {
+                continue;
+            }
+
+            long start = bindingMonitor != null ? System.nanoTime() : 0;
+            if (viewIds[i] == mLayoutResourceId) {
+                viewHandlers[i].handleView(mAdapter, parent, view, instance, position);
             } else {
-                Holder holder = holders.get(viewId);
-                View viewWithId = null;
-                if (holder != null) {
-                    viewWithId = holder.view;
-                } else {
-                    viewWithId = view.findViewById(viewId);
-                    holders.append(viewId, new Holder(viewWithId, null));
-                }
-                viewHandler.handleView(mAdapter, view, viewWithId, instance, position);
+                viewHandlers[i].handleView(mAdapter, view, handlerViews[i], instance, position);
+            }
+            if (bindingMonitor != null) {
+                bindingMonitor.onStep(mDataType, viewIds[i], BindingMonitor.STEP_VIEW_HANDLER,
+                        System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static boolean contains(final int[] array, final int value) {
+        for (int element : array) {
+            if (element == value) {
+                return true;
             }
         }
+        return false;
     }
 
 }
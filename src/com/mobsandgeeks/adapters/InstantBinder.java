@@ -0,0 +1,54 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+
+/**
+ * Implemented by the binders that the <b>Instant Adapter</b> annotation processor generates for
+ * models with {@link InstantText} annotated methods. A generated binder calls the annotated
+ * methods directly, so that the adapters do not have to use reflection while binding. You will
+ * never have to implement this interface yourself.
+ * <p>
+ * Binders are named after the model they bind, e.g. {@code Book$$InstantBinder} for a
+ * {@code Book} model, and are looked up once per model class. Models without a generated binder
+ * continue to work through reflection.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ *
+ * @param <T> The model bound by this binder.
+ */
+public interface InstantBinder<T> {
+
+    /**
+     * Returns the names of the annotated methods, the index of a name in the returned array is
+     * the index expected by {@link #getValue(int, Object, Context)}.
+     *
+     * @return An array of annotated method names.
+     */
+    String[] getMethodNames();
+
+    /**
+     * Calls the annotated method at the given index on the instance.
+     *
+     * @param index Index of the method, as returned by {@link #getMethodNames()}.
+     * @param instance The instance whose method has to be called.
+     * @param context The {@link Context} for methods that accept one.
+     *
+     * @return The value returned by the annotated method.
+     */
+    Object getValue(int index, T instance, Context context);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates fields in your model class that have to be filled from a
+ * {@link android.database.Cursor} column by {@link InstantColumnCursorAdapter}, which implements
+ * {@link InstantCursorAdapter#getInstance(android.database.Cursor)} for you. The model must have
+ * a no-args constructor and the fields must meet the following requirements:
+ *
+ * <ol>
+ *   <li>Should not be {@code static} or {@code final}.</li>
+ *   <li>Should be a {@code String}, {@code byte[]}, a primitive {@code int}, {@code long},
+ *   {@code short}, {@code float}, {@code double} or {@code boolean}, or their wrapper
+ *   types.</li>
+ * </ol>
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * class Book {
+ *     &#064;InstantColumn(name = "title")
+ *     String title;
+ *
+ *     &#064;InstantColumn(name = "author")
+ *     String author;
+ *
+ *     &#064;InstantText(viewId = R.id.title)
+ *     public String getTitle() {
+ *          return title;
+ *     }
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface InstantColumn {
+    public String name();
+}
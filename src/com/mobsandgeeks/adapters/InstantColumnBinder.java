@@ -0,0 +1,59 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.database.Cursor;
+
+/**
+ * Implemented by the column binders that the <b>Instant Adapter</b> annotation processor
+ * generates for models with {@link InstantColumn} annotated fields. A generated column binder
+ * reads the columns into the fields directly, using column indices that are resolved once per
+ * {@link Cursor}. You will never have to implement this interface yourself.
+ * <p>
+ * Column binders are named after the model they fill, e.g. {@code Book$$InstantColumns} for a
+ * {@code Book} model. Models without a generated column binder are filled using reflection.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ *
+ * @param <T> The model filled by this binder.
+ */
+public interface InstantColumnBinder<T> {
+
+    /**
+     * Returns the names of the annotated columns, the index of a name in the returned array is
+     * also its index in the {@code columnIndices} passed to
+     * {@link #fill(Object, Cursor, int[])}.
+     *
+     * @return An array of column names.
+     */
+    String[] getColumnNames();
+
+    /**
+     * Creates a new, empty instance of the model.
+     *
+     * @return A new instance.
+     */
+    T newInstance();
+
+    /**
+     * Fills the annotated fields of the instance from the cursor's current row.
+     *
+     * @param instance The instance to fill.
+     * @param cursor The {@link Cursor}, positioned at the row to read.
+     * @param columnIndices Indices of the columns returned by {@link #getColumnNames()}.
+     */
+    void fill(T instance, Cursor cursor, int[] columnIndices);
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+
+/**
+ * An {@link InstantCursorAdapter} for models whose fields are annotated with
+ * {@link InstantColumn}. Models are created using their no-args constructor and their annotated
+ * fields are filled from the {@link Cursor}, so there is no {@link #getInstance(Cursor)} to
+ * implement. When instance reuse is enabled, the fields of recycled models are refilled in
+ * place.
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * InstantColumnCursorAdapter&lt;Book&gt; bookCursorAdapter =
+ *         new InstantColumnCursorAdapter&lt;Book&gt;(context, R.layout.book_item, Book.class,
+ *                 booksCursor);
+ * </pre>
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ *
+ * @param <T> The model you want to back using the {@link InstantColumnCursorAdapter}.
+ */
+public class InstantColumnCursorAdapter<T> extends InstantCursorAdapter<T> {
+
+    private ColumnMapping mColumnMapping;
+
+    /**
+     * Constructs a new {@link InstantColumnCursorAdapter} backed by your {@link Cursor}.
+     *
+     * @param context The {@link Context} to use.
+     * @param layoutResourceId The resource id of your XML layout.
+     * @param dataType The data type backed by your adapter.
+     * @param cursor The {@link Cursor} to be used.
+     *
+     * @throws IllegalArgumentException If {@code dataType} does not have {@link InstantColumn}
+     *          annotated fields.
+     */
+    public InstantColumnCursorAdapter(final Context context, final int layoutResourceId,
+            final Class<?> dataType, final Cursor cursor) {
+        super(context, layoutResourceId, dataType, cursor);
+        mColumnMapping = ColumnMapping.obtain(dataType);
+        if (!mColumnMapping.hasColumns()) {
+            throw new IllegalArgumentException(String.format("%s does not have @InstantColumn " +
+                    "annotated fields.", dataType.getName()));
+        }
+    }
+
+    /**
+     * Creates an instance using its no-args constructor and fills its {@link InstantColumn}
+     * annotated fields.
+     *
+     * @param cursor The cursor backed by the {@link InstantColumnCursorAdapter}.
+     *
+     * @return An instance associated with the cursor's current position.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getInstance(final Cursor cursor) {
+        Object instance = mColumnMapping.newInstance();
+        mColumnMapping.fill(instance, cursor, getMappedColumnIndices(cursor));
+        return (T) instance;
+    }
+
+    /**
+     * Refills the {@link InstantColumn} annotated fields of an instance in place.
+     *
+     * @param instance The instance to refill, {@code null} if the row does not have one yet.
+     * @param cursor The cursor backed by the {@link InstantColumnCursorAdapter}.
+     *
+     * @return The refilled instance, or a new one.
+     */
+    @Override
+    public T reuse(final T instance, final Cursor cursor) {
+        if (instance == null) {
+            return getInstance(cursor);
+        }
+
+        mColumnMapping.fill(instance, cursor, getMappedColumnIndices(cursor));
+        return instance;
+    }
+
+    @Override
+    ColumnMapping getColumnMapping() {
+        return mColumnMapping;
+    }
+
+}
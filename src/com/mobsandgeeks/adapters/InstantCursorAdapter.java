@@ -16,14 +16,32 @@ package com.mobsandgeeks.adapters;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AdapterView;
 import android.widget.CursorAdapter;
+import android.widget.TextView;
+
+import java.lang.ref.WeakReference;
 
 /**
  * Class constructs a custom {@link CursorAdapter} by mapping <b>Instant*</b> annotated
  * methods from you model to {@link View}s on your layout. Methods can be annotated using the
- * {@link InstantText} annotation.
+ * {@link InstantText} annotation. Your model is created from the {@link Cursor} by
+ * {@link #getInstance(Cursor)}. If your model's fields are annotated with
+ * {@link InstantColumn}, use {@link InstantColumnCursorAdapter} instead of implementing it.
+ * <p>
+ * Scrolling allocates a new model for every row that is bound. Call
+ * {@link #setInstanceReuseEnabled(boolean)} to keep one model per recycled row and refill it
+ * using {@link #reuse(Object, Cursor)} instead. If your models are expensive to create, call
+ * {@link #setModelCacheSize(int)} to keep the most recently bound models in memory until the
+ * {@link Cursor} or its contents change.
+ * </p>
+ * <p>
+ * For very large cursors call {@link #setPageSize(int)}, models are then loaded a page at a
+ * time on a background thread so that scrolling never waits for the {@link Cursor}.
+ * </p>
  * 
  * @author Ragunath Jawahar <rj@mobsandgeeks.com>
  * 
@@ -32,6 +50,31 @@ import android.widget.CursorAdapter;
 public abstract class InstantCursorAdapter<T> extends CursorAdapter {
 
     private InstantAdapterCore<T> mInstantAdapterCore;
+    private Class<?> mDataType;
+
+    // Column indices, resolved once per Cursor on the UI thread
+    private String[] mColumnNames = new String[0];
+    private ColumnIndices mColumnIndices;
+    private final ThreadLocal<ColumnIndices> mPageColumnIndices = new ThreadLocal<ColumnIndices>();
+
+    // Attributes
+    private boolean mInstanceReuseEnabled;
+
+    // Caches
+    private LongLruCache<T> mModelCache;
+    private Cursor mCachedCursor;
+    private long mModelCacheHitCount;
+    private long mModelCacheMissCount;
+
+    // Paged loading, pages are read from the Cursor holding its lock
+    private int mPageSize;
+    private int mPrefetchPageCount = 1;
+    private SparseArray<Page> mPages;
+    private SparseArray<Boolean> mLoadingPages;
+    private volatile int mPageGeneration;
+    private int mPagedCount = -1;
+    private int mLastPagedPosition;
+    private WeakReference<AdapterView<?>> mAdapterViewReference;
 
     /**
      * Constructs a new {@link InstantCursorAdapter} backed by your {@link Cursor}.
@@ -44,6 +87,7 @@ public abstract class InstantCursorAdapter<T> extends CursorAdapter {
     public InstantCursorAdapter(final Context context, final int layoutResourceId,
             final Class<?> dataType, final Cursor cursor) {
         super(context, cursor, false);
+        mDataType = dataType;
         mInstantAdapterCore = new InstantAdapterCore<T>(context, this, layoutResourceId,
                 dataType);
     }
@@ -53,7 +97,16 @@ public abstract class InstantCursorAdapter<T> extends CursorAdapter {
      */
     @Override
     public final void bindView(final View view, final Context context, final Cursor cursor) {
-        T instance = getInstance(cursor);
+        BindingMonitor bindingMonitor = mInstantAdapterCore.getBindingMonitor();
+        T instance;
+        if (bindingMonitor == null) {
+            instance = obtainInstance(view, cursor);
+        } else {
+            long start = System.nanoTime();
+            instance = obtainInstance(view, cursor);
+            bindingMonitor.onStep(mDataType, View.NO_ID, BindingMonitor.STEP_INSTANCE,
+                    System.nanoTime() - start);
+        }
         mInstantAdapterCore.bindToView(null, view, instance, cursor.getPosition());
     }
 
@@ -65,6 +118,284 @@ public abstract class InstantCursorAdapter<T> extends CursorAdapter {
         return mInstantAdapterCore.createNewView(context, parent);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCount() {
+        if (mPageSize == 0) {
+            return super.getCount();
+        }
+
+        if (mPagedCount == -1) {
+            Cursor cursor = getCursor();
+            if (cursor == null) {
+                return 0;
+            }
+            synchronized (cursor) {
+                mPagedCount = super.getCount();
+            }
+        }
+        return mPagedCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When paged loading is enabled, returns the model at the given position instead of the
+     * {@link Cursor}, or {@code null} if its page has not been loaded yet. The {@link Cursor}
+     * is not touched, so this method never waits for a page that is being loaded.
+     * </p>
+     */
+    @Override
+    public Object getItem(final int position) {
+        if (mPageSize == 0) {
+            return super.getItem(position);
+        }
+
+        Page page = mPages.get(position / mPageSize);
+        return page != null ? page.models[position % mPageSize] : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When paged loading is enabled, returns {@link AdapterView#INVALID_ROW_ID} for rows whose
+     * page has not been loaded yet. The {@link Cursor} is not touched, so this method never
+     * waits for a page that is being loaded.
+     * </p>
+     */
+    @Override
+    public long getItemId(final int position) {
+        if (mPageSize == 0) {
+            return super.getItemId(position);
+        }
+
+        Page page = mPages.get(position / mPageSize);
+        return page != null ? page.ids[position % mPageSize] : AdapterView.INVALID_ROW_ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns {@code false} when paged loading is enabled, since the ids of rows whose page has
+     * not been loaded yet are not known.
+     * </p>
+     */
+    @Override
+    public boolean hasStableIds() {
+        return mPageSize == 0 && super.hasStableIds();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When paged loading is enabled, the old {@link Cursor} is closed on the thread that loads
+     * the pages, once the pages being read from it are done.
+     * </p>
+     */
+    @Override
+    public void changeCursor(final Cursor cursor) {
+        if (mPageSize == 0) {
+            super.changeCursor(cursor);
+            return;
+        }
+
+        final Cursor oldCursor = swapCursor(cursor);
+        if (oldCursor != null) {
+            InstantExecutors.paging().execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    oldCursor.close();
+                }
+            });
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public View getView(final int position, final View convertView, final ViewGroup parent) {
+        BindingMonitor bindingMonitor = mInstantAdapterCore.getBindingMonitor();
+        if (bindingMonitor == null) {
+            return getBoundView(position, convertView, parent);
+        }
+
+        bindingMonitor.onBindStarted(mDataType, position);
+        long start = System.nanoTime();
+        View view = getBoundView(position, convertView, parent);
+        bindingMonitor.onBindFinished(mDataType, position, System.nanoTime() - start);
+        return view;
+    }
+
+    private View getBoundView(final int position, final View convertView,
+            final ViewGroup parent) {
+        if (mPageSize == 0) {
+            return super.getView(position, convertView, parent);
+        }
+        if (!mDataValid) {
+            throw new IllegalStateException("This should only be called when the cursor " +
+                    "is valid.");
+        }
+
+        if (parent instanceof AdapterView && (mAdapterViewReference == null
+                || mAdapterViewReference.get() != parent)) {
+            mAdapterViewReference = new WeakReference<AdapterView<?>>((AdapterView<?>) parent);
+        }
+        View view = convertView != null ?
+                convertView : mInstantAdapterCore.createNewView(mContext, parent);
+
+        int pageIndex = position / mPageSize;
+        Page page = mPages.get(pageIndex);
+        if (page != null) {
+            @SuppressWarnings("unchecked")
+            T instance = (T) page.models[position % mPageSize];
+            mInstantAdapterCore.bindToView(parent, view, instance, position);
+        } else {
+            bindPlaceholder(view, position);
+        }
+
+        int direction = position >= mLastPagedPosition ? 1 : -1;
+        mLastPagedPosition = position;
+        loadPage(pageIndex);
+        for (int i = 1; i <= mPrefetchPageCount; i++) {
+            loadPage(pageIndex + direction * i);
+        }
+
+        return view;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyDataSetChanged() {
+        clearModelCache();
+        clearPages();
+        super.notifyDataSetChanged();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyDataSetInvalidated() {
+        clearModelCache();
+        clearPages();
+        super.notifyDataSetInvalidated();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onContentChanged() {
+        clearModelCache();
+        clearPages();
+        super.onContentChanged();
+    }
+
+    /**
+     * Rebinds the Views with the given ids for a row that is currently visible. Use this
+     * instead of {@link #notifyDataSetChanged()} when only a few columns of a single row have
+     * changed, only the annotated methods and {@link ViewHandler}s for those Views are invoked.
+     * Nothing happens if the row is not visible, it will be bound when it is scrolled into
+     * view. The row's cached model, if any, is dropped and created again.
+     *
+     * @param adapterView The {@link AdapterView} this adapter is set to.
+     * @param position Position of the changed row.
+     * @param viewIds Ids of the Views whose values have changed.
+     */
+    public void notifyViewsChanged(final AdapterView<?> adapterView, final int position,
+            final int... viewIds) {
+        View view = mInstantAdapterCore.getVisibleView(adapterView, position);
+        Cursor cursor = getCursor();
+        if (view == null || cursor == null) {
+            return;
+        }
+
+        if (mPageSize != 0) {
+            // Reload the page, the row is bound again once it arrives
+            int pageIndex = position / mPageSize;
+            mPages.remove(pageIndex);
+            loadPage(pageIndex);
+            return;
+        }
+
+        if (cursor.moveToPosition(position)) {
+            if (mModelCache != null && cursor == mCachedCursor) {
+                // The cached model holds the old values
+                mModelCache.remove(getCacheKey(cursor));
+            }
+            T instance = obtainInstance(view, cursor);
+            mInstantAdapterCore.bindToView(adapterView, view, instance, position, viewIds);
+        }
+    }
+
+    /**
+     * Enables paged loading. Models are created a page at a time by calling
+     * {@link #getInstance(Cursor)} on a background thread, pages ahead of the scroll direction
+     * are loaded in advance and rows whose page has not arrived yet are bound using
+     * {@link #bindPlaceholder(View, int)}. The {@link Cursor} is locked while a page is loaded,
+     * synchronize on it if you access it yourself, including when you close a {@link Cursor}
+     * returned by {@link #swapCursor(Cursor)}. Column indices are resolved on the UI thread
+     * before a page is loaded. The model cache and instance reuse are not used while paged
+     * loading is enabled, and the adapter does not have stable ids, so call this method before
+     * setting the adapter to its {@link AdapterView}. Disabled by default.
+     *
+     * @param pageSize Number of rows per page, 0 disables paged loading.
+     *
+     * @throws IllegalArgumentException If {@code pageSize} is negative.
+     */
+    public void setPageSize(final int pageSize) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("'pageSize' cannot be negative.");
+        }
+        mPageSize = pageSize;
+        if (mPages == null) {
+            mPages = new SparseArray<Page>();
+            mLoadingPages = new SparseArray<Boolean>();
+        }
+        clearPages();
+    }
+
+    /**
+     * Gets the number of rows per page, see {@link #setPageSize(int)}.
+     *
+     * @return The page size, 0 if paged loading is disabled.
+     */
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * Sets the number of pages that are loaded ahead of the scroll direction. Defaults to 1.
+     *
+     * @param prefetchPageCount Number of pages to load in advance.
+     *
+     * @throws IllegalArgumentException If {@code prefetchPageCount} is negative.
+     */
+    public void setPrefetchPageCount(final int prefetchPageCount) {
+        if (prefetchPageCount < 0) {
+            throw new IllegalArgumentException("'prefetchPageCount' cannot be negative.");
+        }
+        mPrefetchPageCount = prefetchPageCount;
+    }
+
+    /**
+     * Binds a row whose model has not been loaded yet when paged loading is enabled. The
+     * default implementation clears the annotated {@link TextView}s, override it to display
+     * something else.
+     *
+     * @param view The row's {@link View}.
+     * @param position Position of the row.
+     */
+    protected void bindPlaceholder(final View view, final int position) {
+        mInstantAdapterCore.bindPlaceholder(view);
+    }
+
     /**
      * Sets a {@link ViewHandler} for a View with the given id.
      *
@@ -75,6 +406,202 @@ public abstract class InstantCursorAdapter<T> extends CursorAdapter {
         mInstantAdapterCore.setViewHandler(viewId, viewHandler);
     }
 
+    /**
+     * Enables or disables model instance reuse. When enabled, each row keeps the model it was
+     * last bound to and {@link #reuse(Object, Cursor)} refills it when the row is recycled, so
+     * scrolling does not allocate a model per row. Models are then shared with the rows, don't
+     * hold on to instances passed to your {@link ViewHandler}s. Disabled by default.
+     *
+     * @param enabled {@code true} to reuse model instances.
+     */
+    public void setInstanceReuseEnabled(final boolean enabled) {
+        mInstanceReuseEnabled = enabled;
+    }
+
+    /**
+     * Checks if model instances are reused, see {@link #setInstanceReuseEnabled(boolean)}.
+     *
+     * @return {@code true} if model instances are reused.
+     */
+    public boolean isInstanceReuseEnabled() {
+        return mInstanceReuseEnabled;
+    }
+
+    /**
+     * Sets the number of models kept in memory. Models are keyed by their row id (or position
+     * if the {@link Cursor} does not have an {@code _id} column) and the least recently bound
+     * models are dropped first. The cache is cleared when the {@link Cursor} is changed or its
+     * contents change. Cached models are shared between binds, so instance reuse (see
+     * {@link #setInstanceReuseEnabled(boolean)}) is not used while the cache is enabled.
+     * Disabled by default.
+     *
+     * @param size Maximum number of cached models, 0 disables the cache.
+     *
+     * @throws IllegalArgumentException If {@code size} is negative.
+     */
+    public void setModelCacheSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("'size' cannot be negative.");
+        }
+        mModelCache = size > 0 ? new LongLruCache<T>(size) : null;
+        mCachedCursor = null;
+    }
+
+    /**
+     * Gets the maximum number of cached models, see {@link #setModelCacheSize(int)}.
+     *
+     * @return The cache size, 0 if the cache is disabled.
+     */
+    public int getModelCacheSize() {
+        return mModelCache != null ? mModelCache.maxSize() : 0;
+    }
+
+    /**
+     * Drops all the cached models. Call this if your models depend on something other than the
+     * {@link Cursor}'s contents.
+     */
+    public void clearModelCache() {
+        if (mModelCache != null) {
+            mModelCache.clear();
+        }
+    }
+
+    /**
+     * Gets the number of binds that found their model in the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getModelCacheHitCount() {
+        return mModelCacheHitCount;
+    }
+
+    /**
+     * Gets the number of binds that had to call {@link #getInstance(Cursor)} while the cache
+     * was enabled.
+     *
+     * @return The number of cache misses.
+     */
+    public long getModelCacheMissCount() {
+        return mModelCacheMissCount;
+    }
+
+    /**
+     * Resets the model cache hit and miss counters.
+     */
+    public void resetModelCacheCounts() {
+        mModelCacheHitCount = 0;
+        mModelCacheMissCount = 0;
+    }
+
+    /**
+     * Sets an {@link HtmlCache} for {@link InstantText}s with {@code isHtml} set, so that the
+     * same HTML is not parsed every time a row is bound. Caches can be shared between adapters.
+     *
+     * @param htmlCache The {@link HtmlCache}, {@code null} to parse HTML on every bind.
+     */
+    public void setHtmlCache(final HtmlCache htmlCache) {
+        mInstantAdapterCore.setHtmlCache(htmlCache);
+    }
+
+    /**
+     * Sets a {@link BindingMonitor} that is told how long each step of binding a row takes,
+     * e.g. a {@link BindingStats}. Rows are not timed unless a monitor is set.
+     *
+     * @param bindingMonitor The {@link BindingMonitor}, {@code null} to stop timing binds.
+     */
+    public void setBindingMonitor(final BindingMonitor bindingMonitor) {
+        mInstantAdapterCore.setBindingMonitor(bindingMonitor);
+    }
+
+    /**
+     * Inflates rows on a background thread ahead of time, e.g. before the adapter is set to its
+     * {@link AdapterView}, so that the first screen and the first fling do not have to inflate
+     * the layout on the UI thread. Views in the layout must be safe to construct off the UI
+     * thread, if inflating a row fails the error is logged and rows are inflated on the UI thread
+     * as usual.
+     *
+     * @param parent The {@link AdapterView} the rows will be displayed in, used to generate
+     *          their layout params.
+     * @param count Number of rows to inflate, at most 32 rows are kept for each layout.
+     */
+    public void prewarmViews(final ViewGroup parent, final int count) {
+        mInstantAdapterCore.prewarmViews(parent, count);
+    }
+
+    /**
+     * Gets the number of rows that were taken from the rows inflated by
+     * {@link #prewarmViews(ViewGroup, int)}.
+     *
+     * @return The number of pool hits.
+     */
+    public long getViewPoolHitCount() {
+        return mInstantAdapterCore.getViewPoolHitCount();
+    }
+
+    /**
+     * Gets the number of rows that had to be inflated on the UI thread.
+     *
+     * @return The number of pool misses.
+     */
+    public long getViewPoolMissCount() {
+        return mInstantAdapterCore.getViewPoolMissCount();
+    }
+
+    /**
+     * Gets the number of times a {@link TextView}'s text was set while binding views.
+     *
+     * @return The number of {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getTextUpdateCount() {
+        return mInstantAdapterCore.getTextUpdateCount();
+    }
+
+    /**
+     * Gets the number of times setting a {@link TextView}'s text was skipped because the bound
+     * text had not changed. See {@link InstantText#skipUnchanged()}.
+     *
+     * @return The number of avoided {@link TextView#setText(CharSequence)} calls.
+     */
+    public long getSkippedTextUpdateCount() {
+        return mInstantAdapterCore.getSkippedTextUpdateCount();
+    }
+
+    /**
+     * Resets the text update counters, e.g. before measuring a scroll.
+     */
+    public void resetTextUpdateCounts() {
+        mInstantAdapterCore.resetTextUpdateCounts();
+    }
+
+    /**
+     * Declares the columns read by your {@link #getInstance(Cursor)} implementation. Their
+     * indices are resolved once per {@link Cursor} and returned by {@link #getColumnIndices()},
+     * so that rows are read without looking up column names.
+     *
+     * @param columnNames Names of the columns, in the order you want their indices in.
+     *
+     * @throws IllegalArgumentException If {@code columnNames} is {@code null}.
+     */
+    protected final void setColumnNames(final String... columnNames) {
+        if (columnNames == null) {
+            throw new IllegalArgumentException("'columnNames' cannot be null.");
+        }
+        mColumnNames = columnNames.clone();
+        mColumnIndices = null;
+    }
+
+    /**
+     * Returns the indices of the columns declared using {@link #setColumnNames(String...)} in
+     * the current {@link Cursor}, in the same order. Call this method from your
+     * {@link #getInstance(Cursor)} implementation instead of
+     * {@link Cursor#getColumnIndex(String)}. The returned array is shared, do not modify it.
+     *
+     * @return The column indices, -1 for columns that do not exist.
+     */
+    protected final int[] getColumnIndices() {
+        return obtainColumnIndices(getCursor()).columnIndices;
+    }
+
     /**
      * Method returns an instance of your model from the Cursor.
      * 
@@ -84,4 +611,226 @@ public abstract class InstantCursorAdapter<T> extends CursorAdapter {
      */
     public abstract T getInstance(Cursor cursor);
 
+    /**
+     * Refills an instance that was previously bound to a recycled row with the values at the
+     * cursor's current position. Only called when instance reuse is enabled, see
+     * {@link #setInstanceReuseEnabled(boolean)}. The default implementation calls
+     * {@link #getInstance(Cursor)}, override this method to refill the instance in place.
+     *
+     * @param instance The instance to refill, {@code null} if the row does not have one yet.
+     * @param cursor The cursor backed by the {@link InstantCursorAdapter}.
+     *
+     * @return The refilled instance, or a new one.
+     */
+    public T reuse(final T instance, final Cursor cursor) {
+        return getInstance(cursor);
+    }
+
+    /**
+     * Returns the indices of the {@link InstantColumn} mapped columns in the given
+     * {@link Cursor}, in the order expected by {@link ColumnMapping#fill(Object, Cursor, int[])}.
+     */
+    final int[] getMappedColumnIndices(final Cursor cursor) {
+        return obtainColumnIndices(cursor).mappedColumnIndices;
+    }
+
+    /**
+     * Returns the {@link ColumnMapping} used to create instances, {@code null} unless instances
+     * are filled from their {@link InstantColumn} annotated fields. Mapped columns are only
+     * resolved when there is one.
+     */
+    ColumnMapping getColumnMapping() {
+        return null;
+    }
+
+    private T obtainInstance(final View view, final Cursor cursor) {
+        if (mModelCache != null) {
+            return obtainCachedInstance(cursor);
+        } else if (!mInstanceReuseEnabled) {
+            return getInstance(cursor);
+        }
+
+        T instance = reuse(mInstantAdapterCore.getRowInstance(view), cursor);
+        mInstantAdapterCore.setRowInstance(view, instance);
+        return instance;
+    }
+
+    private void loadPage(final int pageIndex) {
+        final Cursor cursor = getCursor();
+        if (pageIndex < 0 || cursor == null || pageIndex * mPageSize >= getCount()
+                || mPages.get(pageIndex) != null || mLoadingPages.get(pageIndex) != null) {
+            return;
+        }
+
+        mLoadingPages.put(pageIndex, Boolean.TRUE);
+        final int generation = mPageGeneration;
+        final int start = pageIndex * mPageSize;
+        final int end = Math.min(start + mPageSize, getCount());
+        final int rowIdColumn = mRowIDColumn;
+        final ColumnIndices columnIndices = indexColumns(cursor);
+
+        InstantExecutors.paging().execute(new Runnable() {
+
+            @Override
+            public void run() {
+                final Page page = readPage(generation, cursor, columnIndices, start, end,
+                        rowIdColumn);
+                InstantExecutors.mainThread().post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        onPageLoaded(generation, pageIndex, page);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads a page on the paging thread. Stops early if the pages were cleared or the
+     * {@link Cursor} was closed in the meantime.
+     */
+    private Page readPage(final int generation, final Cursor cursor,
+            final ColumnIndices columnIndices, final int start, final int end,
+            final int rowIdColumn) {
+        Page page = new Page(end - start);
+        mPageColumnIndices.set(columnIndices);
+        try {
+            synchronized (cursor) {
+                for (int position = start; position < end; position++) {
+                    if (generation != mPageGeneration || cursor.isClosed()
+                            || !cursor.moveToPosition(position)) {
+                        return null;
+                    }
+                    page.models[position - start] = getInstance(cursor);
+                    page.ids[position - start] = rowIdColumn != -1 ?
+                            cursor.getLong(rowIdColumn) : position;
+                }
+            }
+        } finally {
+            mPageColumnIndices.remove();
+        }
+        return page;
+    }
+
+    private void onPageLoaded(final int generation, final int pageIndex, final Page page) {
+        if (generation != mPageGeneration) {
+            return;
+        }
+        mLoadingPages.remove(pageIndex);
+        if (page == null) {
+            return;
+        }
+        mPages.put(pageIndex, page);
+
+        // Drop the pages that are far from the scroll position
+        int currentPageIndex = mLastPagedPosition / mPageSize;
+        for (int i = mPages.size() - 1; i >= 0; i--) {
+            if (Math.abs(mPages.keyAt(i) - currentPageIndex) > mPrefetchPageCount + 1) {
+                mPages.removeAt(i);
+            }
+        }
+
+        // Bind the visible rows that were waiting for this page
+        AdapterView<?> adapterView = mAdapterViewReference != null ?
+                mAdapterViewReference.get() : null;
+        if (adapterView == null) {
+            return;
+        }
+        int start = pageIndex * mPageSize;
+        int end = Math.min(start + mPageSize, getCount());
+        for (int position = start; position < end; position++) {
+            View view = mInstantAdapterCore.getVisibleView(adapterView, position);
+            if (view != null) {
+                @SuppressWarnings("unchecked")
+                T instance = (T) page.models[position - start];
+                mInstantAdapterCore.bindToView(adapterView, view, instance, position);
+            }
+        }
+    }
+
+    private void clearPages() {
+        if (mPages != null) {
+            mPages.clear();
+            mLoadingPages.clear();
+            mPageGeneration++;
+            mPagedCount = -1;
+        }
+    }
+
+    /**
+     * Models and row ids loaded for a range of positions.
+     */
+    private static class Page {
+        final Object[] models;
+        final long[] ids;
+
+        Page(final int pageSize) {
+            models = new Object[pageSize];
+            ids = new long[pageSize];
+        }
+    }
+
+    private T obtainCachedInstance(final Cursor cursor) {
+        if (cursor != mCachedCursor) {
+            mModelCache.clear();
+            mCachedCursor = cursor;
+        }
+
+        long key = getCacheKey(cursor);
+        T instance = mModelCache.get(key);
+        if (instance != null) {
+            mModelCacheHitCount++;
+        } else {
+            mModelCacheMissCount++;
+            instance = getInstance(cursor);
+            mModelCache.put(key, instance);
+        }
+        return instance;
+    }
+
+    private long getCacheKey(final Cursor cursor) {
+        return mRowIDColumn != -1 ? cursor.getLong(mRowIDColumn) : cursor.getPosition();
+    }
+
+    /**
+     * Returns the column indices for the given {@link Cursor}. While a page is loaded, the
+     * indices that were resolved on the UI thread for it are returned instead.
+     */
+    private ColumnIndices obtainColumnIndices(final Cursor cursor) {
+        ColumnIndices pageColumnIndices = mPageColumnIndices.get();
+        return pageColumnIndices != null ? pageColumnIndices : indexColumns(cursor);
+    }
+
+    /**
+     * Resolves the column indices of a {@link Cursor}, only called on the UI thread.
+     */
+    private ColumnIndices indexColumns(final Cursor cursor) {
+        if (mColumnIndices == null || mColumnIndices.cursor != cursor) {
+            mColumnIndices = new ColumnIndices(cursor, mColumnNames, getColumnMapping());
+        }
+        return mColumnIndices;
+    }
+
+    /**
+     * Indices of the declared columns of a {@link Cursor} and of the {@link InstantColumn}
+     * mapped columns. Never modified once created, so that pages can be loaded using them.
+     */
+    private static final class ColumnIndices {
+        final Cursor cursor;
+        final int[] columnIndices;
+        final int[] mappedColumnIndices;
+
+        ColumnIndices(final Cursor cursor, final String[] columnNames,
+                final ColumnMapping columnMapping) {
+            this.cursor = cursor;
+            this.columnIndices = new int[columnNames.length];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnIndices[i] = cursor != null ? cursor.getColumnIndex(columnNames[i]) : -1;
+            }
+            this.mappedColumnIndices = cursor != null && columnMapping != null ?
+                    columnMapping.resolveColumnIndices(cursor) : null;
+        }
+    }
+
 }
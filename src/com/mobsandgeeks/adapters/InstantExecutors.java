@@ -0,0 +1,131 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads shared by all the adapters. Work that does not belong on the UI thread runs on low
+ * priority background threads and results are posted back to the main thread. Lists are
+ * compared, cursor pages are loaded and rows are prefetched on separate threads, so that a
+ * large comparison does not hold up the pages and rows needed to keep scrolling smooth.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class InstantExecutors {
+
+    private static final String THREAD_NAME = "InstantAdapter-Worker";
+    private static final String DIFF_THREAD_NAME = "InstantAdapter-Diff";
+    private static final String PAGING_THREAD_NAME = "InstantAdapter-Paging";
+    private static final String INFLATER_THREAD_NAME = "InstantAdapter-Inflater";
+
+    private static ExecutorService sBackgroundExecutor;
+    private static ExecutorService sDiffExecutor;
+    private static ExecutorService sPagingExecutor;
+    private static Handler sMainThreadHandler;
+    private static Handler sInflaterHandler;
+
+    private InstantExecutors() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    /**
+     * Returns the shared background {@link Executor} used to prepare rows and HTML ahead of
+     * time, tasks are run one at a time in the order they were submitted.
+     */
+    static synchronized Executor background() {
+        if (sBackgroundExecutor == null) {
+            sBackgroundExecutor = newSerialExecutor(THREAD_NAME);
+        }
+        return sBackgroundExecutor;
+    }
+
+    /**
+     * Returns the {@link ExecutorService} that compares lists, tasks are run one at a time in
+     * the order they were submitted. Comparisons that are no longer needed should be cancelled
+     * through their {@link java.util.concurrent.Future}.
+     */
+    static synchronized ExecutorService diff() {
+        if (sDiffExecutor == null) {
+            sDiffExecutor = newSerialExecutor(DIFF_THREAD_NAME);
+        }
+        return sDiffExecutor;
+    }
+
+    /**
+     * Returns the {@link Executor} that loads cursor pages, tasks are run one at a time in the
+     * order they were submitted.
+     */
+    static synchronized Executor paging() {
+        if (sPagingExecutor == null) {
+            sPagingExecutor = newSerialExecutor(PAGING_THREAD_NAME);
+        }
+        return sPagingExecutor;
+    }
+
+    /**
+     * Returns a {@link Handler} for the thread that inflates layouts ahead of time. Unlike the
+     * background executor the thread has a {@link Looper}, so that Views which create a
+     * {@link Handler} can be constructed on it.
+     */
+    static synchronized Handler inflater() {
+        if (sInflaterHandler == null) {
+            HandlerThread handlerThread = new HandlerThread(INFLATER_THREAD_NAME,
+                    Process.THREAD_PRIORITY_BACKGROUND);
+            handlerThread.setDaemon(true);
+            handlerThread.start();
+            sInflaterHandler = new Handler(handlerThread.getLooper());
+        }
+        return sInflaterHandler;
+    }
+
+    /**
+     * Returns a {@link Handler} for the main thread.
+     */
+    static synchronized Handler mainThread() {
+        if (sMainThreadHandler == null) {
+            sMainThreadHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainThreadHandler;
+    }
+
+    private static ExecutorService newSerialExecutor(final String threadName) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.widget.ListView;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates the method in your model class that returns the model's id, usually its database
+ * id. {@link InstantAdapter} then has stable ids, so that {@link ListView} can keep checked
+ * items and other row state across data changes. Adapters with more than one view type do not
+ * have stable ids, since ids of different model classes can collide. The method should meet the
+ * same requirements as an {@link InstantText} method and return a {@code long}, an {@code int}
+ * or a {@link Number}.
+ *
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * class Book {
+ *     
+ *
+ *     &#064;InstantId
+ *     public long getId() {
+ *          return id;
+ *     }
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Rows bound to a different instance with the same id can keep their annotated Views when the
+ * contents are the same, see {@link InstantAdapter#setUnchangedRowCallback(DiffCallback)}.
+ * Methods that accept a {@link Context} are passed the adapter's {@link Context}.
+ * </p>
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface InstantId {
+}
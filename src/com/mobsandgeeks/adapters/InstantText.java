@@ -48,6 +48,18 @@ import java.lang.annotation.Target;
  * </pre>
  * </p>
  *
+ * <p>
+ * Set {@code skipUnchanged} to {@code true} to have the adapters remember the text last set on
+ * the {@link TextView} and not set it again when a row is bound to the same text. Leave it off
+ * if something else changes the text of the View, e.g. a {@link ViewHandler} that appends to
+ * it, since the View would then keep the changed text.
+ * </p>
+ *
+ * <p>
+ * Methods used with a {@code datePattern} may return a {@link java.util.Date}, a
+ * {@link java.util.Calendar} or epoch milliseconds as a {@code long}.
+ * </p>
+ *
  * @author Ragunath Jawahar <rj@mobsandgeeks.com>
  */
 @Retention(RetentionPolicy.RUNTIME)
@@ -59,4 +71,5 @@ public @interface InstantText {
     public int formatStringResId()  default 0;
     public String formatString()    default "";
     public boolean isHtml()         default false;
+    public boolean skipUnchanged()  default false;
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differences between two lists, computed using the ids supplied by a {@link DiffCallback}.
+ * Items are matched by id in linear time and moves are counted as the items that fall outside
+ * the longest increasing run of old positions, so that lists with tens of thousands of items
+ * can be compared on a background thread in a few milliseconds.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class ListDiff {
+
+    // Constants
+    private static final int INTERRUPT_CHECK_INTERVAL = 1024;
+
+    private final int mInsertCount;
+    private final int mRemoveCount;
+    private final int mMoveCount;
+    private final int[] mChangedPositions;
+
+    private ListDiff(final int insertCount, final int removeCount, final int moveCount,
+            final int[] changedPositions) {
+        mInsertCount = insertCount;
+        mRemoveCount = removeCount;
+        mMoveCount = moveCount;
+        mChangedPositions = changedPositions;
+    }
+
+    /**
+     * Compares two lists. The comparison stops early if the calling thread is interrupted.
+     *
+     * @param oldItems The current items.
+     * @param newItems The new items.
+     * @param callback The {@link DiffCallback} that identifies and compares items.
+     *
+     * @return The differences between the lists, or {@code null} if the thread was
+     *          interrupted.
+     */
+    static <T> ListDiff compute(final List<T> oldItems, final List<T> newItems,
+            final DiffCallback<T> callback) {
+        int nOldItems = oldItems.size();
+        int nNewItems = newItems.size();
+
+        Map<Object, Integer> oldPositions = new HashMap<Object, Integer>(nOldItems * 2);
+        for (int i = 0; i < nOldItems; i++) {
+            if (i % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            oldPositions.put(callback.getId(oldItems.get(i)), i);
+        }
+
+        int[] matchedOldPositions = new int[nNewItems];
+        int[] changedPositions = new int[nNewItems];
+        int nMatched = 0;
+        int nChanged = 0;
+
+        for (int i = 0; i < nNewItems; i++) {
+            if (i % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            T newItem = newItems.get(i);
+            Integer oldPosition = oldPositions.remove(callback.getId(newItem));
+            if (oldPosition == null) {
+                continue;
+            }
+
+            matchedOldPositions[nMatched++] = oldPosition;
+            if (!callback.areContentsTheSame(oldItems.get(oldPosition), newItem)) {
+                changedPositions[nChanged++] = i;
+            }
+        }
+
+        int moveCount = nMatched - longestIncreasingRun(matchedOldPositions, nMatched);
+        int[] trimmedChangedPositions = new int[nChanged];
+        System.arraycopy(changedPositions, 0, trimmedChangedPositions, 0, nChanged);
+
+        return new ListDiff(nNewItems - nMatched, nOldItems - nMatched, moveCount,
+                trimmedChangedPositions);
+    }
+
+    int getInsertCount() {
+        return mInsertCount;
+    }
+
+    int getRemoveCount() {
+        return mRemoveCount;
+    }
+
+    int getMoveCount() {
+        return mMoveCount;
+    }
+
+    /**
+     * Returns the positions in the new list of the items whose contents have changed.
+     */
+    int[] getChangedPositions() {
+        return mChangedPositions;
+    }
+
+    /**
+     * Checks if the lists are the same in every respect.
+     */
+    boolean isEmpty() {
+        return !hasStructuralChanges() && mChangedPositions.length == 0;
+    }
+
+    /**
+     * Checks if items were inserted, removed or moved. If not, every item is at the same
+     * position in both lists.
+     */
+    boolean hasStructuralChanges() {
+        return mInsertCount != 0 || mRemoveCount != 0 || mMoveCount != 0;
+    }
+
+    private static int longestIncreasingRun(final int[] values, final int length) {
+        // Patience sorting, O(n log n)
+        int[] tails = new int[length];
+        int nTails = 0;
+        for (int i = 0; i < length; i++) {
+            int low = 0;
+            int high = nTails;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (tails[middle] < values[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int index = low;
+            tails[index] = values[i];
+            if (index == nTails) {
+                nTails++;
+            }
+        }
+        return nTails;
+    }
+
+}
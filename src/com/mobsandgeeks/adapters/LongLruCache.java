@@ -0,0 +1,234 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import java.util.Arrays;
+
+/**
+ * A bounded, least recently used cache keyed by primitive {@code long}s. All the storage is
+ * allocated up front, so unlike a {@code LinkedHashMap<Long, V>} nothing is allocated or boxed
+ * when entries are looked up, added or evicted. Not thread-safe.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ *
+ * @param <V> The type of the cached values.
+ */
+final class LongLruCache<V> {
+
+    // Constants
+    private static final int NONE = -1;
+
+    // Entries, linked from the most to the least recently used
+    private final int mMaxSize;
+    private final long[] mKeys;
+    private final Object[] mValues;
+    private final int[] mPrevious;
+    private final int[] mNext;
+    private int mHead = NONE;
+    private int mTail = NONE;
+    private int mFreeEntry = NONE;
+    private int mAllocatedCount;
+    private int mSize;
+
+    // Open addressing hash table of entry index + 1, 0 marks an empty slot
+    private final int[] mTable;
+    private final int mMask;
+
+    /**
+     * Constructs a new {@link LongLruCache}.
+     *
+     * @param maxSize Maximum number of entries.
+     *
+     * @throws IllegalArgumentException If {@code maxSize} is not positive.
+     */
+    LongLruCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("'maxSize' should be positive.");
+        }
+        mMaxSize = maxSize;
+        mKeys = new long[maxSize];
+        mValues = new Object[maxSize];
+        mPrevious = new int[maxSize];
+        mNext = new int[maxSize];
+
+        // At most half full, so that probe sequences stay short
+        int tableSize = Integer.highestOneBit(maxSize) << 2;
+        mTable = new int[tableSize];
+        mMask = tableSize - 1;
+    }
+
+    int maxSize() {
+        return mMaxSize;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the value for a key and marks it as the most recently used one.
+     *
+     * @return The value, or {@code null} if the key is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    V get(final long key) {
+        int slot = findSlot(key);
+        if (slot == NONE) {
+            return null;
+        }
+
+        int entry = mTable[slot] - 1;
+        moveToHead(entry);
+        return (V) mValues[entry];
+    }
+
+    /**
+     * Adds or replaces the value for a key, the least recently used entry is evicted if the
+     * cache is full.
+     */
+    void put(final long key, final V value) {
+        int slot = findSlot(key);
+        if (slot != NONE) {
+            int entry = mTable[slot] - 1;
+            mValues[entry] = value;
+            moveToHead(entry);
+            return;
+        }
+
+        if (mSize == mMaxSize) {
+            remove(mKeys[mTail]);
+        }
+
+        int entry;
+        if (mFreeEntry != NONE) {
+            entry = mFreeEntry;
+            mFreeEntry = mNext[entry];
+        } else {
+            entry = mAllocatedCount++;
+        }
+        mKeys[entry] = key;
+        mValues[entry] = value;
+        linkAtHead(entry);
+        mSize++;
+
+        slot = hash(key);
+        while (mTable[slot] != 0) {
+            slot = (slot + 1) & mMask;
+        }
+        mTable[slot] = entry + 1;
+    }
+
+    /**
+     * Removes the value for a key, if there is one.
+     */
+    void remove(final long key) {
+        int slot = findSlot(key);
+        if (slot == NONE) {
+            return;
+        }
+
+        int entry = mTable[slot] - 1;
+        unlink(entry);
+        mValues[entry] = null;
+        mNext[entry] = mFreeEntry;
+        mFreeEntry = entry;
+        mSize--;
+
+        // Shift the following entries of the probe sequence back into the hole
+        int hole = slot;
+        mTable[hole] = 0;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mMask;
+            int movedEntry = mTable[i];
+            if (movedEntry == 0) {
+                break;
+            }
+
+            int home = hash(mKeys[movedEntry - 1]);
+            boolean reachable = hole <= i ? home > hole && home <= i : home > hole || home <= i;
+            if (!reachable) {
+                mTable[hole] = movedEntry;
+                mTable[i] = 0;
+                hole = i;
+            }
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    void clear() {
+        Arrays.fill(mTable, 0);
+        Arrays.fill(mValues, null);
+        mHead = NONE;
+        mTail = NONE;
+        mFreeEntry = NONE;
+        mAllocatedCount = 0;
+        mSize = 0;
+    }
+
+    private int findSlot(final long key) {
+        int slot = hash(key);
+        while (mTable[slot] != 0) {
+            if (mKeys[mTable[slot] - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        return NONE;
+    }
+
+    private int hash(final long key) {
+        // Row ids are often sequential, spread them over the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mMask;
+    }
+
+    private void moveToHead(final int entry) {
+        if (entry != mHead) {
+            unlink(entry);
+            linkAtHead(entry);
+        }
+    }
+
+    private void linkAtHead(final int entry) {
+        mPrevious[entry] = NONE;
+        mNext[entry] = mHead;
+        if (mHead != NONE) {
+            mPrevious[mHead] = entry;
+        }
+        mHead = entry;
+        if (mTail == NONE) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(final int entry) {
+        int previous = mPrevious[entry];
+        int next = mNext[entry];
+        if (previous != NONE) {
+            mNext[previous] = next;
+        } else {
+            mHead = next;
+        }
+        if (next != NONE) {
+            mPrevious[next] = previous;
+        } else {
+            mTail = previous;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link CompiledDatePattern} prints exactly what {@link SimpleDateFormat} prints,
+ * for every combination of pattern, locale, time zone and instant below.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class CompiledDatePatternTest {
+
+    // Constants
+    private static final String[] PATTERNS = {
+        "yyyy-MM-dd HH:mm:ss.SSS",
+        "d MMM yyyy",
+        "d MMMM yyyy",
+        "EEEE, d MMMM yyyy",
+        "EEE, MMM d, ''yy",
+        "h:mm a",
+        "K:mm a",
+        "k:mm",
+        "y M d H m s S",
+        "MMMM yyyy",
+        "MMMM",
+        "MMM",
+        "'Month:' MMMM",
+        "MM",
+        "yyyy",
+        "'at' HH 'o''clock'",
+        "dd.MM.yy G",
+        "D w"
+    };
+
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        Locale.UK,
+        Locale.GERMANY,
+        Locale.FRANCE,
+        Locale.JAPAN,
+        new Locale("ja", "JP", "JP"),
+        new Locale("th", "TH"),
+        new Locale("th", "TH", "TH"),
+        new Locale("pl", "PL"),
+        new Locale("ru", "RU"),
+        new Locale("cs", "CZ"),
+        new Locale("fi", "FI"),
+        new Locale("ar", "EG"),
+        new Locale("hi", "IN")
+    };
+
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Warsaw", "Asia/Kolkata" };
+
+    @Test
+    public void formatsLikeSimpleDateFormat() {
+        int mismatches = 0;
+        StringBuilder report = new StringBuilder();
+        StringBuilder builder = new StringBuilder();
+
+        for (String timeZoneId : TIME_ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+            for (Locale locale : LOCALES) {
+                for (String pattern : PATTERNS) {
+                    CompiledDatePattern compiledPattern =
+                            CompiledDatePattern.compile(pattern, locale, timeZone);
+                    SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern, locale);
+                    simpleDateFormat.setTimeZone(timeZone);
+
+                    for (long millis : instants()) {
+                        String expected = simpleDateFormat.format(new Date(millis));
+                        builder.setLength(0);
+                        compiledPattern.appendTo(builder, millis);
+                        if (!expected.equals(builder.toString())) {
+                            if (mismatches++ < 10) {
+                                report.append(String.format("%n%s %s \"%s\" %d: \"%s\" != \"%s\"",
+                                        locale, timeZoneId, pattern, millis, builder, expected));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals("Mismatches:" + report, 0, mismatches);
+    }
+
+    @Test
+    public void formatsCalendarsInTheirOwnTimeZone() {
+        TimeZone tokyo = TimeZone.getTimeZone("Asia/Tokyo");
+        Calendar calendar = new GregorianCalendar(tokyo, Locale.US);
+        calendar.setTimeInMillis(1262304000000L);
+
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        simpleDateFormat.setTimeZone(tokyo);
+
+        CompiledDatePattern compiledPattern = CompiledDatePattern.compile("yyyy-MM-dd HH:mm",
+                Locale.US, TimeZone.getTimeZone("UTC"));
+        assertEquals(simpleDateFormat.format(calendar.getTime()),
+                compiledPattern.format(calendar));
+    }
+
+    @Test
+    public void buddhistYearsAreNotGregorian() {
+        Locale thai = new Locale("th", "TH");
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy", thai);
+        simpleDateFormat.setTimeZone(utc);
+
+        assertEquals(simpleDateFormat.format(new Date(0)),
+                CompiledDatePattern.compile("yyyy", thai, utc).format(0L));
+    }
+
+    @Test
+    public void monthOnItsOwnUsesTheStandaloneName() {
+        Locale polish = new Locale("pl", "PL");
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        long march = 1267488000000L;
+        SimpleDateFormat standalone = new SimpleDateFormat("MMMM", polish);
+        standalone.setTimeZone(utc);
+        SimpleDateFormat withDay = new SimpleDateFormat("d MMMM", polish);
+        withDay.setTimeZone(utc);
+
+        assertEquals(standalone.format(new Date(march)),
+                CompiledDatePattern.compile("MMMM", polish, utc).format(march));
+        assertEquals(withDay.format(new Date(march)),
+                CompiledDatePattern.compile("d MMMM", polish, utc).format(march));
+    }
+
+    private static long[] instants() {
+        // Every month, both halves of the day, midnight, noon and a leap day
+        long[] instants = new long[27];
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+        calendar.clear();
+        for (int month = 0; month < 12; month++) {
+            calendar.set(2013, month, month + 1, month * 2, month * 5, month * 4);
+            calendar.set(Calendar.MILLISECOND, month * 83);
+            instants[month * 2] = calendar.getTimeInMillis();
+            calendar.set(Calendar.HOUR_OF_DAY, 23 - month);
+            instants[month * 2 + 1] = calendar.getTimeInMillis();
+        }
+        instants[24] = 0L;
+        instants[25] = 1330516800000L;
+        instants[26] = 1262347199999L;
+        return instants;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link CompiledFormat} prints exactly what
+ * {@link String#format(Locale, String, Object...)} prints, or fails the same way, for every
+ * combination of format string, locale and value below.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class CompiledFormatTest {
+
+    // Constants
+    private static final String[] FORMAT_STRINGS = {
+        "%s",
+        "Total: %s!",
+        "%d",
+        "%d pages%n",
+        "%.0f",
+        "%.1f%%",
+        "%.2f",
+        "$ %.2f",
+        "%.3f km",
+        "%.15f",
+        "%5d",
+        "%,d",
+        "%10.2f",
+        "%.2f and %.2f",
+        "100%%"
+    };
+
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        Locale.GERMANY,
+        Locale.FRANCE,
+        new Locale("ar", "EG"),
+        new Locale("hi", "IN"),
+        new Locale("fa", "IR")
+    };
+
+    @Test
+    public void formatsLikeStringFormat() {
+        int mismatches = 0;
+        StringBuilder report = new StringBuilder();
+        List<Object> values = values();
+
+        for (Locale locale : LOCALES) {
+            for (String formatString : FORMAT_STRINGS) {
+                CompiledFormat compiledFormat = CompiledFormat.compile(formatString, locale);
+                for (Object value : values) {
+                    String expected = expected(locale, formatString, value);
+                    String actual = actual(compiledFormat, value);
+                    if (!expected.equals(actual)) {
+                        if (mismatches++ < 10) {
+                            report.append(String.format("%n%s \"%s\" %s: \"%s\" != \"%s\"",
+                                    locale, formatString, value, actual, expected));
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals("Mismatches:" + report, 0, mismatches);
+    }
+
+    private static String expected(final Locale locale, final String formatString,
+            final Object value) {
+        try {
+            return String.format(locale, formatString, value);
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String actual(final CompiledFormat compiledFormat, final Object value) {
+        try {
+            return compiledFormat.format(value);
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static List<Object> values() {
+        List<Object> values = new ArrayList<Object>();
+        values.add(null);
+        values.add("text");
+        values.add("");
+        values.add(new Upper("formattable"));
+        values.add(0);
+        values.add(-42);
+        values.add(Integer.MIN_VALUE);
+        values.add(Long.MAX_VALUE);
+        values.add((short) 7);
+        values.add((byte) -3);
+        values.add(new BigDecimal("2.345"));
+        values.add(Float.valueOf(0.1f));
+        values.add(Float.valueOf(1.005f));
+
+        // Ties, carries and the edges of the fast path
+        double[] doubles = {
+            0.0, -0.0, 0.5, 1.5, 2.5, -2.5, 0.125, 0.375, 1.005, 2.675, 9.995, 99.995, 0.05,
+            0.045, 1e-5, 5e-16, 123456789.125, 1e15, 1e16, 1e22, 9.999999999999999e22,
+            Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY
+        };
+        for (double d : doubles) {
+            values.add(d);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            double magnitude = Math.pow(10, random.nextInt(24) - 8);
+            values.add((random.nextDouble() - 0.5) * magnitude);
+            values.add(random.nextInt(100000) / 1000.0);
+            values.add(random.nextInt(2000) / 8.0);
+        }
+        return values;
+    }
+
+    private static class Upper implements Formattable {
+        private final String mText;
+
+        Upper(final String text) {
+            mText = text;
+        }
+
+        @Override
+        public void formatTo(final Formatter formatter, final int flags, final int width,
+                final int precision) {
+            formatter.format("%S", mText);
+        }
+
+        @Override
+        public String toString() {
+            return mText;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.view.View;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.mobsandgeeks.adapters.TestModels.AUTHOR_ID;
+import static com.mobsandgeeks.adapters.TestModels.BOOK_LAYOUT;
+import static com.mobsandgeeks.adapters.TestModels.TITLE_ID;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks how {@link InstantCursorAdapter} and {@link InstantColumnCursorAdapter} resolve column
+ * indices.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class CursorColumnsTest {
+
+    // Attributes
+    private Context mContext;
+    private ListView mListView;
+
+    @Before
+    public void setUp() {
+        mContext = new Context();
+        mListView = new ListView(mContext);
+    }
+
+    @Test
+    public void declaredColumnsAreResolvedOncePerCursor() {
+        BookCursorAdapter adapter = new BookCursorAdapter(mContext,
+                newCursor("_id", "author", "title"));
+
+        View row = adapter.getView(0, null, mListView);
+        int[] columnIndices = adapter.lastColumnIndices;
+        assertArrayEquals(new int[] { 2, 1 }, columnIndices);
+        assertEquals("Title 0", ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+        assertEquals("Author 0", ((TextView) row.findViewById(AUTHOR_ID)).getText().toString());
+
+        adapter.getView(1, row, mListView);
+        assertSame(columnIndices, adapter.lastColumnIndices);
+
+        adapter.changeCursor(newCursor("_id", "title", "author"));
+        adapter.getView(0, row, mListView);
+        assertNotSame(columnIndices, adapter.lastColumnIndices);
+        assertArrayEquals(new int[] { 1, 2 }, adapter.lastColumnIndices);
+    }
+
+    @Test
+    public void missingDeclaredColumnsAreNegative() {
+        BookCursorAdapter adapter = new BookCursorAdapter(mContext, newCursor("_id", "title"));
+
+        adapter.getView(0, null, mListView);
+        assertArrayEquals(new int[] { 1, -1 }, adapter.lastColumnIndices);
+    }
+
+    @Test
+    public void mappedColumnsAreIgnoredByHandWrittenInstances() {
+        // ColumnBook has @InstantColumn fields for columns that this Cursor does not have
+        BookCursorAdapter adapter = new BookCursorAdapter(mContext,
+                newCursor("_id", "book_title", "book_author")) {
+
+            @Override
+            protected String[] columnNames() {
+                return new String[] { "book_title", "book_author" };
+            }
+        };
+
+        View row = adapter.getView(0, null, mListView);
+        assertEquals("Title 0", ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+    }
+
+    @Test
+    public void mappedColumnsAreFilled() {
+        InstantColumnCursorAdapter<ColumnBook> adapter =
+                new InstantColumnCursorAdapter<ColumnBook>(mContext, BOOK_LAYOUT,
+                        ColumnBook.class, newCursor("_id", "author", "title"));
+
+        View row = adapter.getView(1, null, mListView);
+        assertEquals("Title 1", ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+        assertEquals("Author 1", ((TextView) row.findViewById(AUTHOR_ID)).getText().toString());
+    }
+
+    private static Cursor newCursor(final String... columnNames) {
+        MatrixCursor cursor = new MatrixCursor(columnNames);
+        for (int i = 0; i < 3; i++) {
+            Object[] row = new Object[columnNames.length];
+            for (int column = 0; column < columnNames.length; column++) {
+                String columnName = columnNames[column];
+                if ("_id".equals(columnName)) {
+                    row[column] = (long) i;
+                } else if (columnName.endsWith("title")) {
+                    row[column] = "Title " + i;
+                } else {
+                    row[column] = "Author " + i;
+                }
+            }
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    private static class BookCursorAdapter extends InstantCursorAdapter<ColumnBook> {
+        int[] lastColumnIndices;
+
+        BookCursorAdapter(final Context context, final Cursor cursor) {
+            super(context, BOOK_LAYOUT, ColumnBook.class, cursor);
+            setColumnNames(columnNames());
+        }
+
+        protected String[] columnNames() {
+            return new String[] { "title", "author" };
+        }
+
+        @Override
+        public ColumnBook getInstance(final Cursor cursor) {
+            lastColumnIndices = getColumnIndices();
+            String title = lastColumnIndices[0] != -1 ?
+                    cursor.getString(lastColumnIndices[0]) : null;
+            String author = lastColumnIndices[1] != -1 ?
+                    cursor.getString(lastColumnIndices[1]) : null;
+            return new ColumnBook(title, author);
+        }
+    }
+
+    public static class ColumnBook {
+        @InstantColumn(name = "title") String mTitle;
+        @InstantColumn(name = "author") String mAuthor;
+
+        public ColumnBook() {
+        }
+
+        ColumnBook(final String title, final String author) {
+            mTitle = title;
+            mAuthor = author;
+        }
+
+        @InstantText(viewId = TITLE_ID)
+        public String getTitle() {
+            return mTitle;
+        }
+
+        @InstantText(viewId = AUTHOR_ID)
+        public String getAuthor() {
+            return mAuthor;
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.os.Looper;
+import android.view.View;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import com.mobsandgeeks.adapters.TestModels.Book;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.mobsandgeeks.adapters.TestModels.BOOK_LAYOUT;
+import static com.mobsandgeeks.adapters.TestModels.TITLE_ID;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the counts computed by {@link ListDiff} and how
+ * {@link InstantAdapter#submitList(List)} applies them. Items of the {@link ListDiff} tests
+ * are strings such as {@code "7:Title"}, identified by the part before the colon.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class ListDiffTest {
+
+    // Constants
+    private static final DiffCallback<String> ID_COLON_CONTENTS = new DiffCallback<String>() {
+
+        @Override
+        public Object getId(final String item) {
+            return item.substring(0, item.indexOf(':'));
+        }
+
+        @Override
+        public boolean areContentsTheSame(final String oldItem, final String newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private static final DiffCallback<Book> BOOK_ID_AND_TITLE = new DiffCallback<Book>() {
+
+        @Override
+        public Object getId(final Book item) {
+            return item.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(final Book oldItem, final Book newItem) {
+            return oldItem.getTitle().equals(newItem.getTitle());
+        }
+    };
+
+    @Test
+    public void sameListsAreEmpty() {
+        ListDiff listDiff = diff(items("1:a", "2:b", "3:c"), items("1:a", "2:b", "3:c"));
+
+        assertTrue(listDiff.isEmpty());
+        assertFalse(listDiff.hasStructuralChanges());
+    }
+
+    @Test
+    public void changedContentsAreNotStructural() {
+        ListDiff listDiff = diff(items("1:a", "2:b", "3:c"), items("1:a", "2:B", "3:C"));
+
+        assertFalse(listDiff.hasStructuralChanges());
+        assertArrayEquals(new int[] { 1, 2 }, listDiff.getChangedPositions());
+    }
+
+    @Test
+    public void movesAreItemsOutsideTheLongestIncreasingRun() {
+        // One item moved to the front
+        assertEquals(1, diff(items("1:", "2:", "3:", "4:", "5:"),
+                items("5:", "1:", "2:", "3:", "4:")).getMoveCount());
+
+        // Two adjacent items swapped
+        assertEquals(1, diff(items("1:", "2:", "3:", "4:"),
+                items("1:", "3:", "2:", "4:")).getMoveCount());
+
+        // Reversed, only one item stays in place
+        assertEquals(4, diff(items("1:", "2:", "3:", "4:", "5:"),
+                items("5:", "4:", "3:", "2:", "1:")).getMoveCount());
+
+        // Interleaved runs 1 3 5 and 2 4 6 -> 2 4 6 1 3 5, a run of 3 stays
+        assertEquals(3, diff(items("1:", "2:", "3:", "4:", "5:", "6:"),
+                items("2:", "4:", "6:", "1:", "3:", "5:")).getMoveCount());
+    }
+
+    @Test
+    public void insertionsAndRemovalsAreNotMoves() {
+        ListDiff listDiff = diff(items("1:", "2:", "3:", "4:"),
+                items("0:", "1:", "3:", "4:", "5:"));
+
+        assertEquals(2, listDiff.getInsertCount());
+        assertEquals(1, listDiff.getRemoveCount());
+        assertEquals(0, listDiff.getMoveCount());
+        assertTrue(listDiff.hasStructuralChanges());
+    }
+
+    @Test
+    public void emptyOldListIsAllInsertions() {
+        ListDiff listDiff = diff(items(), items("1:", "2:", "3:"));
+
+        assertEquals(3, listDiff.getInsertCount());
+        assertEquals(0, listDiff.getRemoveCount());
+        assertEquals(0, listDiff.getMoveCount());
+    }
+
+    @Test
+    public void emptyNewListIsAllRemovals() {
+        ListDiff listDiff = diff(items("1:", "2:", "3:"), items());
+
+        assertEquals(0, listDiff.getInsertCount());
+        assertEquals(3, listDiff.getRemoveCount());
+        assertEquals(0, listDiff.getChangedPositions().length);
+    }
+
+    @Test
+    public void emptyListsAreEmpty() {
+        assertTrue(diff(items(), items()).isEmpty());
+    }
+
+    @Test
+    public void duplicateIdsAreMatchedOnce() {
+        // Each old item is matched at most once, extra duplicates count as inserts and removals
+        ListDiff listDiff = diff(items("1:a", "1:b", "2:c"), items("1:a", "1:b", "2:c"));
+        assertEquals(1, listDiff.getInsertCount());
+        assertEquals(1, listDiff.getRemoveCount());
+        assertTrue(listDiff.hasStructuralChanges());
+
+        listDiff = diff(items("1:a", "2:b"), items("1:a", "1:a", "2:b"));
+        assertEquals(1, listDiff.getInsertCount());
+        assertEquals(0, listDiff.getRemoveCount());
+    }
+
+    @Test
+    public void interruptedComparisonReturnsNull() {
+        List<String> items = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++) {
+            items.add(i + ":");
+        }
+
+        Thread.currentThread().interrupt();
+        try {
+            assertNull(diff(items, items));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void submittingTheSameItemsDoesNotNotify() throws Exception {
+        List<Book> books = TestModels.newBooks(5);
+        InstantAdapter<Book> adapter = newAdapter(books);
+        CountingObserver observer = new CountingObserver();
+        adapter.registerDataSetObserver(observer);
+
+        adapter.submitList(new ArrayList<Book>(books));
+        awaitSubmittedList();
+
+        assertEquals(0, observer.changedCount);
+        assertEquals(5, adapter.getCount());
+    }
+
+    @Test
+    public void changedItemsAreRebound() throws Exception {
+        List<Book> books = TestModels.newBooks(5);
+        InstantAdapter<Book> adapter = newAdapter(books);
+        ListView listView = new ListView(new Context());
+        listView.setAdapter(adapter);
+        View row = adapter.getView(0, null, listView);
+        listView.addView(row);
+        CountingObserver observer = new CountingObserver();
+        adapter.registerDataSetObserver(observer);
+
+        List<Book> newBooks = new ArrayList<Book>(books);
+        newBooks.set(0, new Book(0, "New title", "Author 0"));
+        adapter.submitList(newBooks);
+        awaitSubmittedList();
+
+        assertEquals(0, observer.changedCount);
+        assertSame(newBooks.get(0), adapter.getItem(0));
+        assertEquals("New title", ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+    }
+
+    @Test
+    public void structuralChangesNotify() throws Exception {
+        List<Book> books = TestModels.newBooks(5);
+        InstantAdapter<Book> adapter = newAdapter(books);
+        CountingObserver observer = new CountingObserver();
+        adapter.registerDataSetObserver(observer);
+
+        List<Book> reversed = new ArrayList<Book>(books);
+        Collections.reverse(reversed);
+        adapter.submitList(reversed);
+        awaitSubmittedList();
+        assertEquals(1, observer.changedCount);
+        assertSame(books.get(4), adapter.getItem(0));
+
+        adapter.submitList(Collections.<Book>emptyList());
+        awaitSubmittedList();
+        assertEquals(2, observer.changedCount);
+        assertEquals(0, adapter.getCount());
+
+        adapter.submitList(books);
+        awaitSubmittedList();
+        assertEquals(3, observer.changedCount);
+        assertEquals(5, adapter.getCount());
+    }
+
+    @Test
+    public void onlyTheLastSubmittedListIsApplied() throws Exception {
+        InstantAdapter<Book> adapter = newAdapter(TestModels.newBooks(5));
+
+        adapter.submitList(TestModels.newBooks(3));
+        adapter.submitList(TestModels.newBooks(7));
+        awaitSubmittedList();
+
+        assertEquals(7, adapter.getCount());
+    }
+
+    private static ListDiff diff(final List<String> oldItems, final List<String> newItems) {
+        return ListDiff.compute(oldItems, newItems, ID_COLON_CONTENTS);
+    }
+
+    private static List<String> items(final String... items) {
+        return Arrays.asList(items);
+    }
+
+    private static InstantAdapter<Book> newAdapter(final List<Book> books) {
+        InstantAdapter<Book> adapter = new InstantAdapter<Book>(new Context(), BOOK_LAYOUT,
+                Book.class, new ArrayList<Book>(books));
+        adapter.setDiffCallback(BOOK_ID_AND_TITLE);
+        return adapter;
+    }
+
+    private static void awaitSubmittedList() throws ExecutionException, InterruptedException {
+        // Lists are compared one at a time, then applied on the main thread
+        InstantExecutors.diff().submit(new Runnable() {
+
+            @Override
+            public void run() {
+            }
+        }).get();
+        Looper.drainMainLooper();
+    }
+
+    private static class CountingObserver extends DataSetObserver {
+        int changedCount;
+
+        @Override
+        public void onChanged() {
+            changedCount++;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.view.View;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import com.mobsandgeeks.adapters.TestModels.Book;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.mobsandgeeks.adapters.TestModels.BOOK_LAYOUT;
+import static com.mobsandgeeks.adapters.TestModels.TITLE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the {@link LongLruCache} behind the model cache of {@link InstantCursorAdapter}, and
+ * that rebinding a changed row does not use its stale cached model.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class ModelCacheTest {
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        LongLruCache<String> cache = new LongLruCache<String>(2);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("three", cache.get(3));
+    }
+
+    @Test
+    public void behavesLikeAnAccessOrderedLinkedHashMap() {
+        final int maxSize = 37;
+        LongLruCache<Long> cache = new LongLruCache<Long>(maxSize);
+        Map<Long, Long> expected = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        // Sequential row ids and a few large and negative keys
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(10) == 0 ?
+                    random.nextLong() % 50 * Integer.MAX_VALUE : random.nextInt(100);
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                assertEquals(expected.get(key), cache.get(key));
+            } else if (operation < 9) {
+                expected.put(key, (long) i);
+                cache.put(key, (long) i);
+            } else if (operation == 9 && random.nextInt(100) == 0) {
+                expected.clear();
+                cache.clear();
+            } else {
+                expected.remove(key);
+                cache.remove(key);
+            }
+            assertEquals(expected.size(), cache.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), cache.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void changedRowIsNotBoundFromTheCache() {
+        MatrixCursor cursor = new MatrixCursor(new String[] { "_id", "title", "author" });
+        cursor.addRow(new Object[] { 7L, "Title", "Author" });
+        CountingCursorAdapter adapter = new CountingCursorAdapter(new Context(), cursor);
+        adapter.setModelCacheSize(10);
+
+        ListView listView = new ListView(new Context());
+        View row = adapter.getView(0, null, listView);
+        listView.addView(row);
+        adapter.getView(0, row, listView);
+        assertEquals(1, adapter.instanceCount);
+        assertEquals(1, adapter.getModelCacheHitCount());
+
+        adapter.notifyViewsChanged(listView, 0, TITLE_ID);
+        assertEquals(2, adapter.instanceCount);
+        assertEquals("Title 2", ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+    }
+
+    private static class CountingCursorAdapter extends InstantCursorAdapter<Book> {
+        int instanceCount;
+
+        CountingCursorAdapter(final Context context, final Cursor cursor) {
+            super(context, BOOK_LAYOUT, Book.class, cursor);
+        }
+
+        @Override
+        public Book getInstance(final Cursor cursor) {
+            instanceCount++;
+            return new Book(cursor.getLong(0), cursor.getString(1) + " " + instanceCount,
+                    cursor.getString(2));
+        }
+    }
+
+}
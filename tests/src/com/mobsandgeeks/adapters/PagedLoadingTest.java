@@ -0,0 +1,79 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.widget.AdapterView;
+
+import com.mobsandgeeks.adapters.TestModels.Book;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.mobsandgeeks.adapters.TestModels.BOOK_LAYOUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the ids reported by an {@link InstantCursorAdapter} with and without paged loading.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class PagedLoadingTest {
+
+    // Constants
+    private static final int ROW_COUNT = 50;
+
+    // Attributes
+    private InstantCursorAdapter<Book> mAdapter;
+
+    @Before
+    public void setUp() {
+        MatrixCursor cursor = new MatrixCursor(new String[] { "_id", "title", "author" });
+        for (int i = 0; i < ROW_COUNT; i++) {
+            cursor.addRow(new Object[] { (long) i + 100, "Title " + i, "Author " + i });
+        }
+
+        mAdapter = new InstantCursorAdapter<Book>(new Context(), BOOK_LAYOUT, Book.class,
+                cursor) {
+
+            @Override
+            public Book getInstance(final Cursor cursor) {
+                return new Book(cursor.getLong(0), cursor.getString(1), cursor.getString(2));
+            }
+        };
+    }
+
+    @Test
+    public void idsAreStableWithoutPaging() {
+        assertTrue(mAdapter.hasStableIds());
+        assertEquals(142, mAdapter.getItemId(42));
+    }
+
+    @Test
+    public void idsAreNotStableWithPaging() {
+        mAdapter.setPageSize(10);
+
+        assertFalse(mAdapter.hasStableIds());
+        assertEquals(AdapterView.INVALID_ROW_ID, mAdapter.getItemId(42));
+
+        mAdapter.setPageSize(0);
+        assertTrue(mAdapter.hasStableIds());
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import com.mobsandgeeks.adapters.TestModels.Book;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.mobsandgeeks.adapters.TestModels.AUTHOR_ID;
+import static com.mobsandgeeks.adapters.TestModels.TITLE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a failure to prewarm rows on the inflater thread is never fatal, neither on the
+ * inflater thread nor on the UI thread, and that rows are then inflated on the UI thread.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class PrewarmViewsTest {
+
+    // Constants
+    private static final int UI_THREAD_ONLY_LAYOUT = 0x7f030101;
+    private static final int ROW_COUNT = 5;
+
+    // The test thread stands in for the UI thread
+    private static volatile Thread sUiThread;
+
+    static {
+        LayoutInflater.registerLayout(UI_THREAD_ONLY_LAYOUT, new LayoutInflater.Layout() {
+
+            @Override
+            public View create(final Context context) {
+                if (Thread.currentThread() != sUiThread) {
+                    throw new RuntimeException("Custom view created off the UI thread");
+                }
+                ViewGroup row = new ViewGroup(context);
+                row.addView(newView(new TextView(context), TITLE_ID));
+                row.addView(newView(new TextView(context), AUTHOR_ID));
+                return row;
+            }
+        });
+    }
+
+    // Attributes
+    private final List<Throwable> mUncaughtExceptions =
+            Collections.synchronizedList(new ArrayList<Throwable>());
+    private Thread.UncaughtExceptionHandler mDefaultHandler;
+    private ListView mListView;
+    private InstantAdapter<Book> mAdapter;
+
+    @Before
+    public void setUp() {
+        sUiThread = Thread.currentThread();
+        mDefaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+
+            @Override
+            public void uncaughtException(final Thread thread, final Throwable throwable) {
+                mUncaughtExceptions.add(throwable);
+            }
+        });
+
+        Context context = new Context();
+        mListView = new ListView(context);
+        mAdapter = new InstantAdapter<Book>(context, UI_THREAD_ONLY_LAYOUT, Book.class,
+                TestModels.newBooks(ROW_COUNT));
+    }
+
+    @After
+    public void tearDown() {
+        Thread.setDefaultUncaughtExceptionHandler(mDefaultHandler);
+    }
+
+    @Test
+    public void failedPrewarmFallsBackToTheUiThread() throws InterruptedException {
+        mAdapter.prewarmViews(mListView, ROW_COUNT);
+        awaitInflaterThread();
+        Looper.drainMainLooper();
+        assertTrue("Uncaught " + mUncaughtExceptions, mUncaughtExceptions.isEmpty());
+
+        for (int position = 0; position < ROW_COUNT; position++) {
+            assertNotNull(mAdapter.getView(position, null, mListView));
+        }
+        assertEquals(0, mAdapter.getViewPoolHitCount());
+        assertEquals(ROW_COUNT, mAdapter.getViewPoolMissCount());
+    }
+
+    @Test
+    public void failedPrewarmIsNotRetried() throws InterruptedException {
+        mAdapter.prewarmViews(mListView, ROW_COUNT);
+        awaitInflaterThread();
+
+        long inflationCount = LayoutInflater.getInflationCount();
+        mAdapter.prewarmViews(mListView, ROW_COUNT);
+        awaitInflaterThread();
+
+        assertEquals(inflationCount, LayoutInflater.getInflationCount());
+        assertTrue("Uncaught " + mUncaughtExceptions, mUncaughtExceptions.isEmpty());
+    }
+
+    private static void awaitInflaterThread() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        InstantExecutors.inflater().post(new Runnable() {
+
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue("Inflater thread is not running", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static View newView(final View view, final int id) {
+        view.setId(id);
+        return view;
+    }
+
+}
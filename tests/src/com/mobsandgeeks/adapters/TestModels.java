@@ -0,0 +1,103 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Models and layouts shared by the tests. Layouts are registered with the
+ * {@link LayoutInflater} stand-in, there are no XML layouts on the JVM.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+final class TestModels {
+
+    // View ids
+    static final int TITLE_ID = 1;
+    static final int AUTHOR_ID = 2;
+    static final int COVER_ID = 3;
+
+    // Layouts, not compile-time constants so that using one registers it
+    static final int BOOK_LAYOUT = registerBookLayout(0x7f030100);
+
+    private TestModels() {
+        throw new UnsupportedOperationException("No instances please.");
+    }
+
+    static List<Book> newBooks(final int count) {
+        List<Book> books = new ArrayList<Book>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(new Book(i, "Title " + i, "Author " + i));
+        }
+        return books;
+    }
+
+    private static int registerBookLayout(final int layoutResId) {
+        LayoutInflater.registerLayout(layoutResId, new LayoutInflater.Layout() {
+
+            @Override
+            public View create(final Context context) {
+                ViewGroup row = new ViewGroup(context);
+                row.addView(newView(new TextView(context), TITLE_ID));
+                row.addView(newView(new TextView(context), AUTHOR_ID));
+
+                // Not bound to any annotated method
+                row.addView(newView(new View(context), COVER_ID));
+                return row;
+            }
+        });
+        return layoutResId;
+    }
+
+    private static View newView(final View view, final int id) {
+        view.setId(id);
+        return view;
+    }
+
+    public static class Book {
+        private final long mId;
+        private final String mTitle;
+        private final String mAuthor;
+
+        public Book(final long id, final String title, final String author) {
+            mId = id;
+            mTitle = title;
+            mAuthor = author;
+        }
+
+        @InstantId
+        public long getId() {
+            return mId;
+        }
+
+        @InstantText(viewId = TITLE_ID)
+        public String getTitle() {
+            return mTitle;
+        }
+
+        @InstantText(viewId = AUTHOR_ID)
+        public String getAuthor() {
+            return mAuthor;
+        }
+    }
+
+}
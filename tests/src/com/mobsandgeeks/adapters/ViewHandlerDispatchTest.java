@@ -0,0 +1,174 @@
+/*
+ * Copyright  2013 Mobs and Geeks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mobsandgeeks.adapters;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ListAdapter;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import com.mobsandgeeks.adapters.TestModels.Book;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.mobsandgeeks.adapters.TestModels.AUTHOR_ID;
+import static com.mobsandgeeks.adapters.TestModels.BOOK_LAYOUT;
+import static com.mobsandgeeks.adapters.TestModels.COVER_ID;
+import static com.mobsandgeeks.adapters.TestModels.TITLE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that every {@link ViewHandler} is invoked exactly once per bind, whether it handles an
+ * annotated View, a View without annotations or the whole row, and that a {@link ViewHandler}
+ * decorating an annotated View sees the text set by the adapter.
+ *
+ * @author Ragunath Jawahar <rj@mobsandgeeks.com>
+ */
+public class ViewHandlerDispatchTest {
+
+    // Constants
+    private static final int ROW_COUNT = 10;
+
+    // Attributes
+    private ListView mListView;
+    private InstantAdapter<Book> mAdapter;
+
+    @Before
+    public void setUp() {
+        Context context = new Context();
+        mListView = new ListView(context);
+        mAdapter = new InstantAdapter<Book>(context, BOOK_LAYOUT, Book.class,
+                TestModels.newBooks(ROW_COUNT));
+    }
+
+    @Test
+    public void annotatedViewHandlerRunsOncePerBind() {
+        CountingViewHandler viewHandler = new CountingViewHandler();
+        mAdapter.setViewHandler(TITLE_ID, viewHandler);
+
+        View row = mAdapter.getView(0, null, mListView);
+        assertEquals(1, viewHandler.count);
+        assertSame(row.findViewById(TITLE_ID), viewHandler.lastView);
+
+        // Recycled rows are bound again
+        mAdapter.getView(1, row, mListView);
+        assertEquals(2, viewHandler.count);
+        assertEquals(1, viewHandler.lastPosition);
+    }
+
+    @Test
+    public void unannotatedViewHandlerRunsOncePerBind() {
+        CountingViewHandler viewHandler = new CountingViewHandler();
+        mAdapter.setViewHandler(COVER_ID, viewHandler);
+
+        View row = mAdapter.getView(0, null, mListView);
+        assertEquals(1, viewHandler.count);
+        assertSame(row.findViewById(COVER_ID), viewHandler.lastView);
+
+        mAdapter.getView(1, row, mListView);
+        assertEquals(2, viewHandler.count);
+    }
+
+    @Test
+    public void layoutViewHandlerRunsOncePerBind() {
+        CountingViewHandler viewHandler = new CountingViewHandler();
+        mAdapter.setViewHandler(BOOK_LAYOUT, viewHandler);
+
+        View row = mAdapter.getView(0, null, mListView);
+        assertEquals(1, viewHandler.count);
+        assertSame(row, viewHandler.lastView);
+    }
+
+    @Test
+    public void everyViewHandlerRunsOncePerBind() {
+        int[] viewIds = { TITLE_ID, AUTHOR_ID, COVER_ID, BOOK_LAYOUT };
+        CountingViewHandler[] viewHandlers = new CountingViewHandler[viewIds.length];
+        for (int i = 0; i < viewIds.length; i++) {
+            viewHandlers[i] = new CountingViewHandler();
+            mAdapter.setViewHandler(viewIds[i], viewHandlers[i]);
+        }
+
+        View row = null;
+        for (int position = 0; position < ROW_COUNT; position++) {
+            row = mAdapter.getView(position, row, mListView);
+        }
+
+        for (CountingViewHandler viewHandler : viewHandlers) {
+            assertEquals(ROW_COUNT, viewHandler.count);
+        }
+    }
+
+    @Test
+    public void viewHandlerSetAfterRowsWereCreatedRunsOncePerBind() {
+        View row = mAdapter.getView(0, null, mListView);
+
+        CountingViewHandler viewHandler = new CountingViewHandler();
+        mAdapter.setViewHandler(AUTHOR_ID, viewHandler);
+        mAdapter.getView(1, row, mListView);
+
+        assertEquals(1, viewHandler.count);
+        assertSame(row.findViewById(AUTHOR_ID), viewHandler.lastView);
+    }
+
+    @Test
+    public void replacedViewHandlerIsNotInvoked() {
+        CountingViewHandler oldViewHandler = new CountingViewHandler();
+        CountingViewHandler newViewHandler = new CountingViewHandler();
+        mAdapter.setViewHandler(TITLE_ID, oldViewHandler);
+        mAdapter.setViewHandler(TITLE_ID, newViewHandler);
+
+        mAdapter.getView(0, null, mListView);
+
+        assertEquals(0, oldViewHandler.count);
+        assertEquals(1, newViewHandler.count);
+    }
+
+    @Test
+    public void viewHandlerDecoratingAnnotatedViewSeesFreshText() {
+        mAdapter.setViewHandler(TITLE_ID, new ViewHandler<Book>() {
+
+            @Override
+            public void handleView(final ListAdapter adapter, final View parent,
+                    final View view, final Book instance, final int position) {
+                TextView textView = (TextView) view;
+                textView.setText(textView.getText() + " (new)");
+            }
+        });
+
+        // Rebinding the same text must not decorate it twice
+        View row = mAdapter.getView(0, null, mListView);
+        mAdapter.getView(0, row, mListView);
+        assertEquals("Title 0 (new)",
+                ((TextView) row.findViewById(TITLE_ID)).getText().toString());
+    }
+
+    private static class CountingViewHandler implements ViewHandler<Book> {
+        int count;
+        View lastView;
+        int lastPosition = -1;
+
+        @Override
+        public void handleView(final ListAdapter adapter, final View parent, final View view,
+                final Book instance, final int position) {
+            count++;
+            lastView = view;
+            lastPosition = position;
+        }
+    }
+
+}